@@ -3,9 +3,11 @@ package com.example.SkillWave;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EntityScan("com.example.SkillWave.model")
+@EnableScheduling
 public class SkillWaveApplication {
 
 	public static void main(String[] args) {
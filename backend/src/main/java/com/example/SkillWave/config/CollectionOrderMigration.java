@@ -0,0 +1,79 @@
+package com.example.SkillWave.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Adds the order columns of the ordered element collections (plan topics, resources and
+ * media, post tags and media) to tables created before they existed. Hibernate's schema
+ * update cannot add a NOT NULL column to a table with rows, so this numbers the existing
+ * rows per owner in insertion order first. Runs before the EntityManagerFactory starts.
+ * The tables it migrates only ever existed in H2 and the numbering relies on H2's row ids,
+ * so on any other database it does nothing.
+ */
+@Configuration
+public class CollectionOrderMigration {
+
+    // table, owner column, order column
+    private static final String[][] ORDERED_COLLECTIONS = {
+        { "LEARNING_PLAN_TOPICS", "LEARNING_PLAN_ID", "TOPICS_ORDER" },
+        { "LEARNING_PLAN_RESOURCES", "LEARNING_PLAN_ID", "RESOURCES_ORDER" },
+        { "LEARNING_PLAN_MEDIA_URLS", "LEARNING_PLAN_ID", "MEDIA_URLS_ORDER" },
+        { "EDUCATIONAL_POST_TAGS", "EDUCATIONAL_POST_ID", "TAGS_ORDER" },
+        { "EDUCATIONAL_POST_MEDIA_URLS", "EDUCATIONAL_POST_ID", "MEDIA_URLS_ORDER" }
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            return;
+        }
+        for (String[] collection : ORDERED_COLLECTIONS) {
+            addOrderColumn(collection[0], collection[1], collection[2]);
+        }
+    }
+
+    private void addOrderColumn(String table, String ownerColumn, String orderColumn) {
+        if (count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ?", table) == 0) {
+            return; // new database, Hibernate creates the table with the column
+        }
+        if (count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? " +
+                "AND COLUMN_NAME = ? AND IS_NULLABLE = 'NO'", table, orderColumn) > 0) {
+            return; // already migrated
+        }
+        if (count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? " +
+                "AND COLUMN_NAME = ?", table, orderColumn) == 0) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN " + orderColumn + " INTEGER");
+        }
+
+        // Rows were always inserted in list order, so H2's row id gives the original positions
+        jdbcTemplate.update("MERGE INTO " + table + " t USING (SELECT _ROWID_ AS rid, " +
+                "ROW_NUMBER() OVER (PARTITION BY " + ownerColumn + " ORDER BY _ROWID_) - 1 AS pos FROM " + table + ") s " +
+                "ON t._ROWID_ = s.rid WHEN MATCHED THEN UPDATE SET " + orderColumn + " = s.pos");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + orderColumn + " SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (" + ownerColumn + ", " + orderColumn + ")");
+    }
+
+    private int count(String sql, Object... args) {
+        Integer result = jdbcTemplate.queryForObject(sql, Integer.class, args);
+        return result != null ? result : 0;
+    }
+
+    // Make the EntityManagerFactory (and its schema update) wait for the migration
+    @Configuration
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(CollectionOrderMigration.class);
+        }
+    }
+}
@@ -4,7 +4,10 @@ import com.example.SkillWave.security.CustomOAuth2UserService;
 import com.example.SkillWave.security.JwtAuthenticationEntryPoint;
 import com.example.SkillWave.security.JwtAuthenticationFilter;
 import com.example.SkillWave.security.OAuth2AuthenticationSuccessHandler;
+import com.example.SkillWave.security.UploadAdmissionFilter;
+import com.example.SkillWave.service.UploadAdmissionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +20,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -38,6 +42,13 @@ public class SecurityConfig {
     @Autowired
     private OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
 
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    // Raising it upgrades stored hashes as their users log in
+    @Value("${app.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
         return new JwtAuthenticationFilter();
@@ -45,7 +56,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -67,6 +78,7 @@ public class SecurityConfig {
                     .requestMatchers("/api/test/**").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/educational-posts/**").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/learning-plans/**").permitAll()
+                    .requestMatchers("/api/media/uploads/**", "/api/media/cache/**").authenticated()
                     .requestMatchers(HttpMethod.GET, "/api/media/**").permitAll()
                     .anyRequest().authenticated()
             )
@@ -79,6 +91,9 @@ public class SecurityConfig {
 
         // Add our custom JWT security filter
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Uploads are admitted once authorized, before their body is read; not a bean, so it
+        // only runs inside this chain
+        http.addFilterAfter(new UploadAdmissionFilter(uploadAdmissionService), AuthorizationFilter.class);
 
         return http.build();
     }
@@ -88,8 +103,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(Arrays.asList("x-auth-token"));
+        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token", "upload-offset"));
+        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "upload-offset", "retry-after"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -1,5 +1,6 @@
 package com.example.SkillWave.controller;
 
+import com.example.SkillWave.event.UserChangedEvent;
 import com.example.SkillWave.exception.BadRequestException;
 import com.example.SkillWave.exception.ResourceNotFoundException;
 import com.example.SkillWave.model.User;
@@ -9,15 +10,17 @@ import com.example.SkillWave.payload.SignUpRequest;
 import com.example.SkillWave.repository.UserRepository;
 import com.example.SkillWave.security.CurrentUser;
 import com.example.SkillWave.security.JwtTokenProvider;
+import com.example.SkillWave.security.PasswordHashingService;
+import com.example.SkillWave.security.TokenRevocations;
 import com.example.SkillWave.security.UserPrincipal;
+import com.example.SkillWave.service.LastLoginRecorder;
+import com.example.SkillWave.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -26,6 +29,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -33,75 +37,93 @@ import java.util.Set;
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private UserRepository userRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private LastLoginRecorder lastLoginRecorder;
 
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // BCrypt runs on the hashing pool; the request thread is released until it is done
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        User user = userCache.findByEmail(loginRequest.getEmail()).orElse(null);
+        String storedHash = user != null ? user.getPassword() : null;
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return passwordHashingService.matches(loginRequest.getPassword(), storedHash).thenApply(matched -> {
+            if (!matched) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            String jwt = generateToken(user);
 
-        String jwt = tokenProvider.generateToken(authentication);
-        
-        // Find the user and update last login time
-        User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + loginRequest.getEmail()));
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
-        
-        return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
+            // Stored with an older cost, replace it while we have the password
+            passwordHashingService.rehashIfNeeded(user.getId(), user.getEmail(), storedHash, loginRequest.getPassword());
+            // Update last login time, written with the next batch
+            lastLoginRecorder.record(user.getId());
+
+            return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
+        });
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
         // Check if the email is already in use
         if (userRepository.existsByEmail(signUpRequest.getEmail())) {
             throw new BadRequestException("Email is already taken");
         }
 
-        // Create user
-        User user = new User();
-        user.setName(signUpRequest.getName());
-        user.setEmail(signUpRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
-        user.setEmailVerified(false);
-        user.setProvider("local");
-        user.setAuthProvider("local");
-        user.setCreatedAt(LocalDateTime.now());
-        user.setLastLogin(LocalDateTime.now());
-        
-        // Set default roles
-        Set<String> roles = new HashSet<>();
-        roles.add("ROLE_USER");
-        user.setRoles(roles);
-        
-        // Save the user
-        User result = userRepository.save(user);
-        
-        // Generate JWT token
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(signUpRequest.getEmail(), signUpRequest.getPassword())
-        );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-        
-        return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
+        return passwordHashingService.encode(signUpRequest.getPassword()).thenApply(passwordHash -> {
+            // Create user
+            User user = new User();
+            user.setName(signUpRequest.getName());
+            user.setEmail(signUpRequest.getEmail());
+            user.setPassword(passwordHash);
+            user.setEmailVerified(false);
+            user.setProvider("local");
+            user.setAuthProvider("local");
+            user.setCreatedAt(LocalDateTime.now());
+            user.setLastLogin(LocalDateTime.now());
+
+            // Set default roles
+            Set<String> roles = new HashSet<>();
+            roles.add("ROLE_USER");
+            user.setRoles(roles);
+
+            // Save the user
+            User result = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.REGISTERED, result.getId(), result.getEmail()));
+
+            // Generate JWT token; the password was just hashed, no need to check it again
+            return ResponseEntity.ok(new JwtAuthenticationResponse(generateToken(result)));
+        });
     }
     
+    /**
+     * Sign out everywhere: every token issued to the user so far stops working
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutEverywhere(@CurrentUser UserPrincipal userPrincipal) {
+        if (userPrincipal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Not authenticated"));
+        }
+        tokenRevocations.revokeAll(userPrincipal.getId());
+        return ResponseEntity.ok(Map.of("message", "Signed out of all sessions"));
+    }
+
     /**
      * Get current user information based on JWT token
      */
@@ -114,7 +136,7 @@ public class AuthController {
         }
         
         try {
-            User user = userRepository.findById(userPrincipal.getId())
+            User user = userCache.findById(userPrincipal.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userPrincipal.getId()));
             
             Map<String, Object> response = new HashMap<>();
@@ -133,4 +155,10 @@ public class AuthController {
                                 "message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private String generateToken(User user) {
+        UserPrincipal userPrincipal = UserPrincipal.create(user);
+        return tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.SkillWave.controller;
 
+import com.example.SkillWave.exception.BadRequestException;
 import com.example.SkillWave.model.EducationalPost;
 import com.example.SkillWave.model.Progress;
 import com.example.SkillWave.service.EducationalPostService;
@@ -108,6 +109,9 @@ public class EducationalPostController {
             // Create post with media
             EducationalPost createdPost = postService.createPostWithMedia(post, mediaFiles);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
+        } catch (BadRequestException e) {
+            // Rejected media (size, type, count) is the client's to fix, answered with a 400
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -162,6 +166,9 @@ public class EducationalPostController {
             // Update post with media
             EducationalPost updatedPost = postService.updatePostWithMedia(id, post, mediaFiles);
             return ResponseEntity.ok(updatedPost);
+        } catch (BadRequestException e) {
+            // Rejected media (size, type, count) is the client's to fix, answered with a 400
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -0,0 +1,43 @@
+package com.example.SkillWave.controller;
+
+import com.example.SkillWave.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@CrossOrigin(origins = "http://localhost:3000")
+public class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    // Global top learners by completed items or progress points
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getGlobalLeaderboard(
+            @RequestParam(defaultValue = "completed") String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTopLearners(metric, null, limit));
+    }
+
+    // Top learners within a post category
+    @GetMapping("/category/{category}")
+    public ResponseEntity<Map<String, Object>> getCategoryLeaderboard(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "completed") String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTopLearners(metric, category, limit));
+    }
+
+    // A user's own rank, globally or within a category
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<Map<String, Object>> getUserRank(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "completed") String metric,
+            @RequestParam(required = false) String category) {
+        return ResponseEntity.ok(leaderboardService.getUserRank(userId, metric, category));
+    }
+}
@@ -2,22 +2,33 @@ package com.example.SkillWave.controller;
 
 import com.example.SkillWave.model.LearningPlan;
 import com.example.SkillWave.model.Progress;
+import com.example.SkillWave.service.DeadlineService;
 import com.example.SkillWave.service.LearningPlanService;
-import com.example.SkillWave.service.MediaService;
 import com.example.SkillWave.service.ProgressService;
+import com.example.SkillWave.service.TopicProgressService;
+import com.example.SkillWave.exception.BadRequestException;
 import com.example.SkillWave.exception.ResourceNotFoundException;
+import com.example.SkillWave.payload.LearningPlanSummary;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/learning-plans")
@@ -28,17 +39,134 @@ public class LearningPlanController {
     private LearningPlanService learningPlanService;
     
     @Autowired
-    private MediaService mediaService;
+    private ProgressService progressService;
     
     @Autowired
-    private ProgressService progressService;
+    private TopicProgressService topicProgressService;
+    
+    @Autowired
+    private DeadlineService deadlineService;
     
     @Autowired
     private ObjectMapper objectMapper;
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "updatedAt", "title", "targetCompletionDate", "id");
 
+    // List plans as summaries. Without a cursor this is offset paging with any allowed sort;
+    // with a cursor (from a previous response) it is keyset paging on createdAt.
     @GetMapping
-    public List<LearningPlan> getAllLearningPlans() {
-        return learningPlanService.getAllLearningPlans();
+    public ResponseEntity<Map<String, Object>> getAllLearningPlans(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor) {
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean descending = !direction.equalsIgnoreCase("asc");
+        Map<String, Object> response = new HashMap<>();
+        
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            List<LearningPlanSummary> plans = learningPlanService.getLearningPlanSummaries(
+                    LocalDateTime.parse(position[0]), Long.parseLong(position[1]), pageSize, descending);
+            response.put("plans", plans);
+            response.put("hasMore", plans.size() == pageSize);
+            response.put("nextCursor", plans.isEmpty() ? null : encodeCursor(plans.get(plans.size() - 1)));
+            return ResponseEntity.ok(response);
+        }
+        
+        String sortProperty = SORTABLE_FIELDS.contains(sortBy) ? sortBy : "createdAt";
+        Sort.Direction sortDirection = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, pageSize, Sort.by(sortDirection, sortProperty).and(Sort.by(sortDirection, "id")));
+        Page<LearningPlanSummary> planPage = learningPlanService.getLearningPlanSummaries(pageable);
+        
+        List<LearningPlanSummary> plans = planPage.getContent();
+        response.put("plans", plans);
+        response.put("currentPage", planPage.getNumber());
+        response.put("totalItems", planPage.getTotalElements());
+        response.put("totalPages", planPage.getTotalPages());
+        if (sortProperty.equals("createdAt") && !plans.isEmpty()) {
+            // Lets clients switch to keyset paging for the following pages
+            response.put("nextCursor", encodeCursor(plans.get(plans.size() - 1)));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Plans tagged with a topic, or with any/all of several topics (match=any|all)
+    @GetMapping("/by-topic")
+    public ResponseEntity<List<LearningPlanSummary>> getLearningPlansByTopic(
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) List<String> topics,
+            @RequestParam(defaultValue = "any") String match,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        List<String> requested = new ArrayList<>();
+        if (topic != null && !topic.isBlank()) {
+            requested.add(topic.trim());
+        }
+        if (topics != null) {
+            for (String value : topics) {
+                if (value != null && !value.isBlank()) {
+                    requested.add(value.trim());
+                }
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new BadRequestException("At least one topic is required");
+        }
+        if (!match.equalsIgnoreCase("any") && !match.equalsIgnoreCase("all")) {
+            throw new BadRequestException("match must be 'any' or 'all'");
+        }
+        
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(learningPlanService.getLearningPlansByTopics(
+                requested, match.equalsIgnoreCase("all"), boundedLimit));
+    }
+    
+    // Case-insensitive substring search, scope=all|text|resources (text is title + description)
+    @GetMapping("/search")
+    public ResponseEntity<List<LearningPlanSummary>> searchLearningPlans(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "all") String scope,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        String query = q.trim();
+        if (query.isEmpty()) {
+            throw new BadRequestException("Search query cannot be empty");
+        }
+        boolean inText = scope.equalsIgnoreCase("all") || scope.equalsIgnoreCase("text");
+        boolean inResources = scope.equalsIgnoreCase("all") || scope.equalsIgnoreCase("resources");
+        if (!inText && !inResources) {
+            throw new BadRequestException("scope must be 'all', 'text' or 'resources'");
+        }
+        
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(learningPlanService.searchLearningPlans(query, inText, inResources, boundedLimit));
+    }
+    
+    // Plans due within the next days and overdue plans the user has not completed
+    @GetMapping("/deadlines/{userId}")
+    public ResponseEntity<Map<String, Object>> getDeadlines(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(deadlineService.getDeadlines(userId, days));
+    }
+    
+    @GetMapping("/featured")
+    public ResponseEntity<List<LearningPlanSummary>> getFeaturedLearningPlans(
+            @RequestParam(defaultValue = "5") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(learningPlanService.getFeaturedLearningPlans(boundedLimit));
+    }
+    
+    @GetMapping("/topics/popular")
+    public ResponseEntity<List<Map<String, Object>>> getPopularTopics(
+            @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(learningPlanService.getPopularTopics(boundedLimit));
     }
 
     @GetMapping("/{id}")
@@ -67,7 +195,7 @@ public class LearningPlanController {
             List<String> topics = parseJsonArray(topicsJson);
             List<String> resources = parseJsonArray(resourcesJson);
             
-            // Create and save the learning plan first to get an ID
+            // Build the learning plan, the service assigns the ID before uploading
             LearningPlan learningPlan = new LearningPlan();
             learningPlan.setTitle(title);
             learningPlan.setDescription(description);
@@ -75,22 +203,13 @@ public class LearningPlanController {
             learningPlan.setResources(resources);
             learningPlan.setTimeline(timeline);
             
-            // Initialize empty media URLs list
-            learningPlan.setMediaUrls(new ArrayList<>());
-            
-            // Save to get ID
-            LearningPlan savedPlan = learningPlanService.createLearningPlan(learningPlan);
-            
-            // Now handle media files if any
-            if (mediaFiles != null && mediaFiles.length > 0) {
-                List<String> mediaUrls = mediaService.uploadFiles(mediaFiles, "learning-plans", savedPlan.getId());
-                savedPlan.setMediaUrls(mediaUrls);
-                
-                // Update the plan with media URLs
-                savedPlan = learningPlanService.updateLearningPlan(savedPlan.getId(), savedPlan);
-            }
+            // Save and attach uploaded media in one transaction
+            LearningPlan savedPlan = learningPlanService.createLearningPlanWithMedia(learningPlan, mediaFiles);
             
             return ResponseEntity.ok(savedPlan);
+        } catch (BadRequestException e) {
+            // Rejected media (size, type, count) is the client's to fix, answered with a 400
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).build();
@@ -104,6 +223,12 @@ public class LearningPlanController {
         return ResponseEntity.ok(updatedPlan);
     }
     
+    // Partial update: only the fields present in the body are changed
+    @PatchMapping("/{id}")
+    public ResponseEntity<LearningPlan> patchLearningPlan(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        return ResponseEntity.ok(learningPlanService.patchLearningPlan(id, changes));
+    }
+    
     @PutMapping("/{id}/with-media")
     public ResponseEntity<LearningPlan> updateLearningPlanWithMedia(
             @PathVariable Long id,
@@ -123,15 +248,6 @@ public class LearningPlanController {
                 throw new IllegalArgumentException("Learning plan ID cannot be null");
             }
             
-            // Check if plan exists
-            boolean exists = learningPlanService.existsById(id);
-            if (!exists) {
-                throw new RuntimeException("Learning plan not found with id: " + id);
-            }
-            
-            // Get existing plan
-            LearningPlan existingPlan = learningPlanService.getLearningPlanById(id);
-            
             // Parse JSON values with null checks
             List<String> topics = new ArrayList<>();
             if (topicsJson != null && !topicsJson.isEmpty()) {
@@ -149,78 +265,21 @@ public class LearningPlanController {
                 System.out.println("Parsed existing media URLs: " + existingMediaUrls);
             }
             
-            // Update basic fields with null safety
-            existingPlan.setTitle(title != null ? title : "");
-            existingPlan.setDescription(description != null ? description : "");
-            existingPlan.setTopics(topics);
-            existingPlan.setResources(resources);
-            existingPlan.setTimeline(timeline != null ? timeline : "");
-            
-            // Ensure media URLs list is initialized
-            if (existingPlan.getMediaUrls() == null) {
-                existingPlan.setMediaUrls(new ArrayList<>());
-            }
-            
-            // Handle deleted media files
-            List<String> deletedMediaUrls = new ArrayList<>();
-            for (String url : existingPlan.getMediaUrls()) {
-                if (!existingMediaUrls.contains(url)) {
-                    deletedMediaUrls.add(url);
-                }
-            }
-            
-            // Delete removed files
-            for (String url : deletedMediaUrls) {
-                try {
-                    mediaService.deleteFile(url);
-                } catch (Exception e) {
-                    System.err.println("Error deleting file: " + url);
-                    e.printStackTrace();
-                    // Continue with next file
-                }
-            }
-            
-            // Update the media URLs list
-            existingPlan.setMediaUrls(new ArrayList<>(existingMediaUrls));
-            
-            // Process new media files if present
-            if (mediaFiles != null && mediaFiles.length > 0) {
-                try {
-                    System.out.println("Uploading " + mediaFiles.length + " new media files");
-                    
-                    // Filter out null files
-                    List<MultipartFile> validFiles = new ArrayList<>();
-                    for (MultipartFile file : mediaFiles) {
-                        if (file != null && !file.isEmpty()) {
-                            validFiles.add(file);
-                        }
-                    }
-                    
-                    if (!validFiles.isEmpty()) {
-                        // Convert List back to array for the service call
-                        MultipartFile[] validFilesArray = validFiles.toArray(new MultipartFile[0]);
-                        
-                        // Upload files
-                        List<String> newMediaUrls = mediaService.uploadFiles(validFilesArray, "learning-plans", id);
-                        
-                        // Add new URLs to existing ones
-                        if (newMediaUrls != null && !newMediaUrls.isEmpty()) {
-                            List<String> allMediaUrls = new ArrayList<>(existingPlan.getMediaUrls());
-                            allMediaUrls.addAll(newMediaUrls);
-                            existingPlan.setMediaUrls(allMediaUrls);
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing new media files: " + e.getMessage());
-                    e.printStackTrace();
-                    // Continue with update even if media upload fails
-                }
-            }
+            // New field values with null safety
+            LearningPlan changes = new LearningPlan();
+            changes.setTitle(title != null ? title : "");
+            changes.setDescription(description != null ? description : "");
+            changes.setTopics(topics);
+            changes.setResources(resources);
+            changes.setTimeline(timeline != null ? timeline : "");
             
-            // Save updates
-            LearningPlan updatedPlan = learningPlanService.updateLearningPlan(id, existingPlan);
+            // One transaction and a single load of the plan for fields, removed and new media
+            LearningPlan updatedPlan = learningPlanService.updateLearningPlanWithMedia(id, changes, existingMediaUrls, mediaFiles);
             return ResponseEntity.ok(updatedPlan);
             
+        } catch (BadRequestException e) {
+            // Rejected media (size, type, count) is the client's to fix, answered with a 400
+            throw e;
         } catch (Exception e) {
             System.err.println("Error updating learning plan with media: " + e.getMessage());
             e.printStackTrace();
@@ -231,18 +290,8 @@ public class LearningPlanController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLearningPlan(@PathVariable Long id) {
         try {
-            // Get learning plan to delete its media
-            LearningPlan plan = learningPlanService.getLearningPlanById(id);
-            
-            // Delete associated media files
-            if (plan.getMediaUrls() != null && !plan.getMediaUrls().isEmpty()) {
-                System.out.println("Deleting " + plan.getMediaUrls().size() + " media files for plan " + id);
-                for (String url : plan.getMediaUrls()) {
-                    mediaService.deleteFile(url);
-                }
-            }
-            
-            // Delete the learning plan
+            // Unknown ids get a 404; the plan's media files are deleted in the background
+            learningPlanService.getLearningPlanById(id);
             learningPlanService.deleteLearningPlan(id);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
@@ -302,6 +351,51 @@ public class LearningPlanController {
         return ResponseEntity.ok(updatedProgress);
     }
     
+    // Per-topic completion for a user, plan percentage is derived from it
+    @GetMapping("/{id}/progress/{userId}/topics")
+    public ResponseEntity<Map<String, Object>> getTopicProgress(
+            @PathVariable Long id,
+            @PathVariable String userId) {
+        return ResponseEntity.ok(topicProgressService.getTopicProgress(id, userId));
+    }
+    
+    @PutMapping("/{id}/progress/{userId}/topics/{topicIndex}")
+    public ResponseEntity<Map<String, Object>> completeTopic(
+            @PathVariable Long id,
+            @PathVariable String userId,
+            @PathVariable int topicIndex) {
+        return ResponseEntity.ok(topicProgressService.setTopicCompleted(id, userId, topicIndex, true));
+    }
+    
+    @DeleteMapping("/{id}/progress/{userId}/topics/{topicIndex}")
+    public ResponseEntity<Map<String, Object>> uncompleteTopic(
+            @PathVariable Long id,
+            @PathVariable String userId,
+            @PathVariable int topicIndex) {
+        return ResponseEntity.ok(topicProgressService.setTopicCompleted(id, userId, topicIndex, false));
+    }
+    
+    // Opaque keyset cursor: base64url of "createdAt|id"
+    private String encodeCursor(LearningPlanSummary last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+    
     // Helper method to parse JSON arrays
     private List<String> parseJsonArray(String json) {
         try {
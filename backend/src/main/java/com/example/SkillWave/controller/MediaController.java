@@ -1,20 +1,30 @@
 package com.example.SkillWave.controller;
 
+import com.example.SkillWave.model.MediaAsset;
+import com.example.SkillWave.service.HotMediaCache;
+import com.example.SkillWave.service.ImageVariantService;
+import com.example.SkillWave.service.MediaCatalog;
+import com.example.SkillWave.service.MediaService;
+import com.example.SkillWave.service.MediaStore;
+import com.example.SkillWave.util.FileRangeSender;
+import com.example.SkillWave.util.MediaProbe;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -24,83 +34,166 @@ import java.util.UUID;
 @CrossOrigin(origins = "http://localhost:3000")
 public class MediaController {
 
-    @Value("${app.upload.dir:${user.home}/uploads}")
+    // Media is stored under its content hash, so the bytes behind a URL can never change;
+    // older uploads keep their entity path and were never rewritten in place either
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // The original stands in while a variant is generated, it must not be cached under the variant's URL
+    private static final String PENDING_VARIANT_CACHE_CONTROL = "public, max-age=60";
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private HotMediaCache hotMediaCache;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private MediaCatalog mediaCatalog;
+
+    @Value("${app.upload.dir:./uploads}")
     private String uploadDir;
 
     @Value("${app.base.url:http://localhost:8080}")
     private String baseUrl;
 
     @GetMapping("/{folder}/{entityId}/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(
+    public void serveFile(
             @PathVariable String folder,
             @PathVariable Long entityId,
-            @PathVariable String filename) {
+            @PathVariable String filename,
+            @RequestParam(required = false) String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        // Blob names map straight to content keys, older uploads keep their entity path
+        String key = MediaService.resolveKey(folder, entityId, filename);
+        if (key == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Images can be asked for as thumb, medium or large; unknown sizes get the original
+        ImageVariantService.Size variantSize = ImageVariantService.isScalable(filename)
+                ? ImageVariantService.Size.fromParameter(size) : null;
+        String objectKey = variantSize != null ? ImageVariantService.variantKey(key, variantSize) : key;
 
+        // Hot media is answered from memory, without a lookup or read. A variant only counts as
+        // hit on its own entry; the cached original would hide a variant generated since.
+        HotMediaCache.CachedMedia cached = hotMediaCache.get(objectKey);
+        if (cached != null) {
+            sendCached(cached, filename, IMMUTABLE_CACHE_CONTROL, request, response);
+            return;
+        }
+
+        // Size, type, validators and variants come from the catalog; media uploaded before it
+        // existed and not yet backfilled is looked up in the store
+        MediaAsset asset = mediaCatalog.find(folder, entityId, filename);
+        Resolved resolved = asset != null
+                ? resolveCataloged(asset, variantSize)
+                : resolveFromStore(key, variantSize, filename);
+        if (resolved == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (variantSize != null && resolved.objectKey().equals(key)) {
+            // Not generated yet (or lost), serve the original and have the variant made
+            imageVariantService.generateAsync(key);
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, resolved.cacheControl());
+        // Sets ETag and Last-Modified, and answers 304 when the client's copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(resolved.etag(), resolved.lastModified())) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
         try {
-            Path filePath = Paths.get(uploadDir)
-                    .resolve(folder)
-                    .resolve(String.valueOf(entityId))
-                    .resolve(filename);
-            
-            System.out.println("Attempting to serve file: " + filePath.toAbsolutePath());
-            
-            if (!Files.exists(filePath)) {
-                System.out.println("File not found: " + filePath);
-                return ResponseEntity.notFound().build();
-            }
-            
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                // Determine content type
-                String contentType;
-                String fileExtension = getFileExtension(filename);
-                
-                switch (fileExtension.toLowerCase()) {
-                    case "png":
-                        contentType = MediaType.IMAGE_PNG_VALUE;
-                        break;
-                    case "jpg":
-                    case "jpeg":
-                        contentType = MediaType.IMAGE_JPEG_VALUE;
-                        break;
-                    case "gif":
-                        contentType = "image/gif";
-                        break;
-                    case "mp4":
-                        contentType = "video/mp4";
-                        break;
-                    case "webm":
-                        contentType = "video/webm";
-                        break;
-                    default:
-                        contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            if (hotMediaCache.isCacheable(resolved.size())) {
+                cached = hotMediaCache.load(resolved.objectKey(), resolved.size(), resolved.contentType(),
+                        resolved.lastModified(), resolved.etag());
+                if (cached != null) {
+                    FileRangeSender.send(cached.content(), cached.contentType(), cached.etag(), cached.lastModified(),
+                            request, response);
+                    return;
                 }
-                
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .header(HttpHeaders.CONTENT_TYPE, contentType)
-                        .body(resource);
+            }
+            // Local files go out zero-copy, remote objects are streamed per requested range
+            Path localPath = mediaStore.localPath(resolved.objectKey());
+            if (localPath != null) {
+                FileRangeSender.send(localPath, resolved.size(), resolved.contentType(), resolved.etag(),
+                        resolved.lastModified(), request, response);
             } else {
-                System.out.println("File is not readable: " + filePath);
-                return ResponseEntity.notFound().build();
+                FileRangeSender.send((start, length) -> mediaStore.open(resolved.objectKey(), start, length),
+                        resolved.size(), resolved.contentType(), resolved.etag(), resolved.lastModified(), request, response);
             }
-        } catch (MalformedURLException e) {
-            System.err.println("Malformed URL: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            System.err.println("Error serving file: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+        } catch (NoSuchFileException e) {
+            // Cataloged but gone from the store, or deleted since the lookup
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
     }
-    
-    private String getFileExtension(String filename) {
-        if (filename.contains(".")) {
-            return filename.substring(filename.lastIndexOf(".") + 1);
+
+    // What to send for a media request: the object (original or variant) and its headers
+    private record Resolved(String objectKey, long size, String contentType, long lastModified, String etag,
+                            String cacheControl) {
+    }
+
+    private Resolved resolveCataloged(MediaAsset asset, ImageVariantService.Size variantSize) {
+        String key = asset.getStorageKey();
+        long lastModified = asset.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Long variantBytes = variantSize != null ? MediaCatalog.variantSize(asset, variantSize) : null;
+        if (variantBytes != null) {
+            String etag = asset.getContentHash() != null
+                    ? "\"" + asset.getContentHash() + "-" + variantSize.suffix() + "\""
+                    : "W/\"" + Long.toHexString(variantBytes) + "-" + Long.toHexString(lastModified) + "\"";
+            return new Resolved(ImageVariantService.variantKey(key, variantSize), variantBytes, asset.getContentType(),
+                    lastModified, etag, IMMUTABLE_CACHE_CONTROL);
         }
-        return "";
+        String etag = asset.getContentHash() != null
+                ? "\"" + asset.getContentHash() + "\""
+                : "W/\"" + Long.toHexString(asset.getSize()) + "-" + Long.toHexString(lastModified) + "\"";
+        return new Resolved(key, asset.getSize(), asset.getContentType(), lastModified, etag,
+                variantSize != null ? PENDING_VARIANT_CACHE_CONTROL : IMMUTABLE_CACHE_CONTROL);
+    }
+
+    // One stat per candidate instead of exists/isReadable probes
+    private Resolved resolveFromStore(String key, ImageVariantService.Size variantSize, String filename) throws IOException {
+        String contentType = MediaProbe.contentTypeFor(filename);
+        if (variantSize != null) {
+            String variantKey = ImageVariantService.variantKey(key, variantSize);
+            MediaStore.StoredObject variant = mediaStore.stat(variantKey);
+            if (variant != null) {
+                return new Resolved(variantKey, variant.size(), contentType, variant.lastModified(),
+                        mediaService.getVariantETag(key, variant, variantSize), IMMUTABLE_CACHE_CONTROL);
+            }
+        }
+        MediaStore.StoredObject object = mediaStore.stat(key);
+        if (object == null) {
+            return null;
+        }
+        return new Resolved(key, object.size(), contentType, object.lastModified(), mediaService.getETag(key, object),
+                variantSize != null ? PENDING_VARIANT_CACHE_CONTROL : IMMUTABLE_CACHE_CONTROL);
+    }
+
+    private void sendCached(HotMediaCache.CachedMedia cached, String filename, String cacheControl,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(cached.etag(), cached.lastModified())) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+        FileRangeSender.send(cached.content(), cached.contentType(), cached.etag(), cached.lastModified(), request, response);
+    }
+
+    // Hit ratio and size of the in-memory media cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(hotMediaCache.stats());
     }
 
     @PostMapping("/test-upload")
@@ -0,0 +1,86 @@
+package com.example.SkillWave.controller;
+
+import com.example.SkillWave.exception.BadRequestException;
+import com.example.SkillWave.security.CurrentUser;
+import com.example.SkillWave.security.UserPrincipal;
+import com.example.SkillWave.service.ChunkedUploadService;
+import com.example.SkillWave.service.ChunkedUploadService.UploadStatus;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+// Resumable uploads: start, send chunks at the current offset, complete into a media URL
+@RestController
+@RequestMapping("/api/media/uploads")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MediaUploadController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<?> startUpload(@CurrentUser UserPrincipal currentUser,
+                                         @RequestBody Map<String, Object> request) {
+        Object size = request.get("size");
+        if (!(size instanceof Number)) {
+            throw new BadRequestException("Size is required");
+        }
+        UploadStatus status = chunkedUploadService.start(userId(currentUser),
+                (String) request.get("filename"), ((Number) size).longValue(), (String) request.get("sha256"));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+                .body(status);
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> getUploadStatus(@CurrentUser UserPrincipal currentUser,
+                                             @PathVariable String uploadId) {
+        UploadStatus status = chunkedUploadService.status(userId(currentUser), uploadId);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+                .body(status);
+    }
+
+    // The raw request body is the chunk, written at the offset given in the Upload-Offset header
+    @PatchMapping("/{uploadId}")
+    public ResponseEntity<?> appendChunk(@CurrentUser UserPrincipal currentUser,
+                                         @PathVariable String uploadId,
+                                         @RequestHeader(UPLOAD_OFFSET) long offset,
+                                         HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            UploadStatus status = chunkedUploadService.append(userId(currentUser), uploadId, offset, body);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+                    .body(status);
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@CurrentUser UserPrincipal currentUser,
+                                            @PathVariable String uploadId,
+                                            @RequestBody Map<String, Object> request) throws IOException {
+        Object entityId = request.get("entityId");
+        Map<String, Object> response = chunkedUploadService.complete(userId(currentUser), uploadId,
+                (String) request.get("folder"), entityId instanceof Number ? ((Number) entityId).longValue() : null);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> cancelUpload(@CurrentUser UserPrincipal currentUser,
+                                          @PathVariable String uploadId) throws IOException {
+        chunkedUploadService.cancel(userId(currentUser), uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Long userId(UserPrincipal currentUser) {
+        return currentUser != null ? currentUser.getId() : null;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.SkillWave.controller;
 
 import com.example.SkillWave.exception.ResourceNotFoundException;
 import com.example.SkillWave.model.Progress;
+import com.example.SkillWave.service.ActivityService;
 import com.example.SkillWave.service.ProgressService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,6 +24,9 @@ public class ProgressController {
     
     @Autowired
     private ProgressService progressService;
+    
+    @Autowired
+    private ActivityService activityService;
     //post mapping
     @PostMapping
     public ResponseEntity<Progress> createProgress(@RequestBody Progress progress) {
@@ -150,6 +154,20 @@ public class ProgressController {
         return ResponseEntity.ok(summary);
     }
     
+    // Current and longest daily learning streak
+    @GetMapping("/user/{userId}/streak")
+    public ResponseEntity<Map<String, Object>> getStreaks(@PathVariable String userId) {
+        return ResponseEntity.ok(activityService.getStreaks(userId));
+    }
+    
+    // Daily activity flags for the last N days (oldest first)
+    @GetMapping("/user/{userId}/heatmap")
+    public ResponseEntity<Map<String, Object>> getHeatmap(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "365") int days) {
+        return ResponseEntity.ok(activityService.getHeatmap(userId, days));
+    }
+    
     @GetMapping("/user/{userId}/learning-plans")
     public ResponseEntity<Map<String, Object>> getLearningPlanProgress(
             @PathVariable String userId,
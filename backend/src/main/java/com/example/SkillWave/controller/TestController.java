@@ -2,7 +2,6 @@ package com.example.SkillWave.controller;
 
 import com.example.SkillWave.model.LearningPlan;
 import com.example.SkillWave.service.LearningPlanService;
-import com.example.SkillWave.service.MediaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,7 +10,6 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,9 +19,6 @@ public class TestController {
 
     @Autowired
     private LearningPlanService learningPlanService;
-    
-    @Autowired
-    private MediaService mediaService;
 
     @PostMapping("/sample-plan-with-media")
     public ResponseEntity<LearningPlan> createSamplePlanWithMedia(@RequestParam("file") MultipartFile file) {
@@ -36,17 +31,8 @@ public class TestController {
             plan.setResources(Arrays.asList("Sample Resource 1", "Sample Resource 2"));
             plan.setTimeline("4 weeks");
             
-            // Save the plan to get an ID
-            LearningPlan savedPlan = learningPlanService.createLearningPlan(plan);
-            
-            // Upload the media file
-            if (file != null && !file.isEmpty()) {
-                MultipartFile[] files = {file};
-                List<String> mediaUrls = mediaService.uploadFiles(files, "learning-plans", savedPlan.getId());
-                
-                savedPlan.setMediaUrls(mediaUrls);
-                savedPlan = learningPlanService.updateLearningPlan(savedPlan.getId(), savedPlan);
-            }
+            // Save the plan with its media, the upload takes the blob reference
+            LearningPlan savedPlan = learningPlanService.createLearningPlanWithMedia(plan, new MultipartFile[] {file});
             
             return ResponseEntity.ok(savedPlan);
         } catch (Exception e) {
@@ -1,11 +1,14 @@
 package com.example.SkillWave.controller;
 
+import com.example.SkillWave.event.UserChangedEvent;
 import com.example.SkillWave.exception.ResourceNotFoundException;
 import com.example.SkillWave.model.User;
 import com.example.SkillWave.repository.UserRepository;
 import com.example.SkillWave.security.CurrentUser;
 import com.example.SkillWave.security.UserPrincipal;
+import com.example.SkillWave.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,10 +24,16 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> getCurrentUser(@CurrentUser UserPrincipal userPrincipal) {
-        User user = userRepository.findById(userPrincipal.getId())
+        User user = userCache.findById(userPrincipal.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userPrincipal.getId()));
                 
         // Remove sensitive information
@@ -35,7 +44,7 @@ public class UserController {
     
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
-        User user = userRepository.findById(id)
+        User user = userCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         
         // Don't expose sensitive data
@@ -67,6 +76,7 @@ public class UserController {
         }
         
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.PROFILE_UPDATED, updatedUser.getId(), updatedUser.getEmail()));
         
         // Don't return password
         updatedUser.setPassword(null);
@@ -0,0 +1,43 @@
+package com.example.SkillWave.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a learning plan's target completion date is near (REMINDER) or has
+ * passed without the owner completing the plan (OVERDUE).
+ */
+public class PlanDeadlineEvent {
+
+    public enum Type {
+        REMINDER,
+        OVERDUE
+    }
+
+    private final Type type;
+    private final Long planId;
+    private final String userId;
+    private final LocalDateTime deadline;
+
+    public PlanDeadlineEvent(Type type, Long planId, String userId, LocalDateTime deadline) {
+        this.type = type;
+        this.planId = planId;
+        this.userId = userId;
+        this.deadline = deadline;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.SkillWave.event;
+
+/**
+ * Published after every progress write with the stored state before and after the change.
+ */
+public class ProgressChangedEvent {
+
+    private final String userId;
+    private final Long contentId;
+    private final String contentType;
+    private final int previousPercentage;
+    private final int percentage;
+    private final boolean previouslyCompleted;
+    private final boolean completed;
+
+    public ProgressChangedEvent(String userId, Long contentId, String contentType,
+                                int previousPercentage, int percentage,
+                                boolean previouslyCompleted, boolean completed) {
+        this.userId = userId;
+        this.contentId = contentId;
+        this.contentType = contentType;
+        this.previousPercentage = previousPercentage;
+        this.percentage = percentage;
+        this.previouslyCompleted = previouslyCompleted;
+        this.completed = completed;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Long getContentId() {
+        return contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public int getPreviousPercentage() {
+        return previousPercentage;
+    }
+
+    public int getPercentage() {
+        return percentage;
+    }
+
+    public boolean isPreviouslyCompleted() {
+        return previouslyCompleted;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    // Change in progress points (sum of percentages) caused by this write
+    public int getPointsDelta() {
+        return percentage - previousPercentage;
+    }
+
+    // Change in completed item count caused by this write
+    public int getCompletedDelta() {
+        return (completed ? 1 : 0) - (previouslyCompleted ? 1 : 0);
+    }
+}
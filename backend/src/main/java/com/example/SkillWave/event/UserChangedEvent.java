@@ -0,0 +1,37 @@
+package com.example.SkillWave.event;
+
+/**
+ * Published after a user row is written, so copies of the user held elsewhere are dropped.
+ */
+public class UserChangedEvent {
+
+    public enum Type {
+        REGISTERED,
+        PROFILE_UPDATED,
+        LOGGED_IN,
+        CREDENTIALS_UPDATED,
+        TOKENS_REVOKED
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final String email;
+
+    public UserChangedEvent(Type type, Long userId, String email) {
+        this.type = type;
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.SkillWave.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A chunk was sent for an offset other than where the upload currently ends
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UploadOffsetConflictException extends RuntimeException {
+    private final long currentOffset;
+
+    public UploadOffsetConflictException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.SkillWave.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_activity_days", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "activity_year"})
+})
+public class ActivityYear {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "activity_year", nullable = false)
+    private Integer year;
+
+    // One bit per day of the year, see ActivityCalendar
+    @Column(name = "active_days", nullable = false, length = 48)
+    private byte[] activeDays;
+
+    private LocalDateTime updatedAt;
+
+    public ActivityYear() {
+    }
+
+    public ActivityYear(String userId, Integer year) {
+        this.userId = userId;
+        this.year = year;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public byte[] getActiveDays() {
+        return activeDays;
+    }
+
+    public void setActiveDays(byte[] activeDays) {
+        this.activeDays = activeDays;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.SkillWave.model;
 
+import com.example.SkillWave.util.ListMerge;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -22,9 +23,11 @@ public class EducationalPost {
     private String content;
     
     @ElementCollection
+    @OrderColumn
     private List<String> tags = new ArrayList<>();
     
     @ElementCollection
+    @OrderColumn
     private List<String> mediaUrls = new ArrayList<>();
     
     @Column(nullable = false)
@@ -90,8 +93,9 @@ public class EducationalPost {
         return tags;
     }
 
+    // Merged in place so Hibernate only writes the rows that changed
     public void setTags(List<String> tags) {
-        this.tags = tags;
+        ListMerge.mergeInto(this.tags, tags);
     }
 
     public List<String> getMediaUrls() {
@@ -99,7 +103,7 @@ public class EducationalPost {
     }
 
     public void setMediaUrls(List<String> mediaUrls) {
-        this.mediaUrls = mediaUrls;
+        ListMerge.mergeInto(this.mediaUrls, mediaUrls);
     }
 
     public LocalDateTime getCreatedAt() {
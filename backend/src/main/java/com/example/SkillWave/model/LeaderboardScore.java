@@ -0,0 +1,76 @@
+package com.example.SkillWave.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leaderboard_scores", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"board", "user_id"})
+})
+public class LeaderboardScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Board key, e.g. "global:POINTS" or "category:Programming:COMPLETED"
+    @Column(nullable = false)
+    private String board;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private Long score;
+
+    private LocalDateTime updatedAt;
+
+    public LeaderboardScore() {
+    }
+
+    public LeaderboardScore(String board, String userId) {
+        this.board = board;
+        this.userId = userId;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getBoard() {
+        return board;
+    }
+
+    public void setBoard(String board) {
+        this.board = board;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Long getScore() {
+        return score;
+    }
+
+    public void setScore(Long score) {
+        this.score = score;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
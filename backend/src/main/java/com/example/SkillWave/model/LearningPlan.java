@@ -1,12 +1,17 @@
 package com.example.SkillWave.model;
 
+import com.example.SkillWave.util.ListMerge;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "learning_plans")
+@Table(name = "learning_plans", indexes = {
+    @Index(name = "idx_learning_plans_created_at", columnList = "created_at, id"),
+    @Index(name = "idx_learning_plans_target_date", columnList = "target_completion_date, id"),
+    @Index(name = "idx_learning_plans_user_target_date", columnList = "user_id, target_completion_date")
+})
 public class LearningPlan {
     
     @Id
@@ -20,9 +25,11 @@ public class LearningPlan {
     private String description;
     
     @ElementCollection
+    @OrderColumn
     private List<String> topics = new ArrayList<>();
     
     @ElementCollection
+    @OrderColumn
     private List<String> resources = new ArrayList<>();
     
     @Column(nullable = false)
@@ -34,6 +41,7 @@ public class LearningPlan {
     private String timeline;
     
     @ElementCollection
+    @OrderColumn
     private List<String> mediaUrls = new ArrayList<>();
     
     private LocalDateTime targetCompletionDate;
@@ -77,8 +85,9 @@ public class LearningPlan {
         return topics;
     }
 
+    // Merged in place so Hibernate only writes the rows that changed
     public void setTopics(List<String> topics) {
-        this.topics = topics;
+        ListMerge.mergeInto(this.topics, topics);
     }
 
     public List<String> getResources() {
@@ -86,7 +95,7 @@ public class LearningPlan {
     }
 
     public void setResources(List<String> resources) {
-        this.resources = resources;
+        ListMerge.mergeInto(this.resources, resources);
     }
 
     public String getUserId() {
@@ -118,7 +127,7 @@ public class LearningPlan {
     }
 
     public void setMediaUrls(List<String> mediaUrls) {
-        this.mediaUrls = mediaUrls;
+        ListMerge.mergeInto(this.mediaUrls, mediaUrls);
     }
 
     public LocalDateTime getTargetCompletionDate() {
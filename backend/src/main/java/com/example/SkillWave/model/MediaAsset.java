@@ -0,0 +1,188 @@
+package com.example.SkillWave.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Catalog entry for one media URL ("<folder>/<entityId>/<filename>"), everything needed to
+// serve it without asking the media store
+@Entity
+@Table(name = "media_assets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_media_assets_path", columnNames = {"folder", "entity_id", "filename"}),
+        indexes = @Index(name = "idx_media_assets_storage_key", columnList = "storage_key"))
+public class MediaAsset {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Owner entity: the media folder names its type
+    @Column(nullable = false, length = 32)
+    private String folder;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private String filename;
+
+    // Media store key, the content hash for blobs
+    @Column(name = "storage_key", nullable = false, length = 512)
+    private String storageKey;
+
+    // SHA-256 of the content, null for old uploads whose hash was never recorded
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    private Integer width;
+
+    private Integer height;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    // Sizes of the scaled variants, null until generated
+    @Column(name = "thumb_size")
+    private Long thumbSize;
+
+    @Column(name = "medium_size")
+    private Long mediumSize;
+
+    @Column(name = "large_size")
+    private Long largeSize;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public MediaAsset() {
+    }
+
+    public MediaAsset(String folder, Long entityId, String filename, String storageKey) {
+        this.folder = folder;
+        this.entityId = entityId;
+        this.filename = filename;
+        this.storageKey = storageKey;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+
+    public void setFolder(String folder) {
+        this.folder = folder;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public Long getThumbSize() {
+        return thumbSize;
+    }
+
+    public void setThumbSize(Long thumbSize) {
+        this.thumbSize = thumbSize;
+    }
+
+    public Long getMediumSize() {
+        return mediumSize;
+    }
+
+    public void setMediumSize(Long mediumSize) {
+        this.mediumSize = mediumSize;
+    }
+
+    public Long getLargeSize() {
+        return largeSize;
+    }
+
+    public void setLargeSize(Long largeSize) {
+        this.largeSize = largeSize;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.SkillWave.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One stored media file, shared by every upload with the same content
+@Entity
+@Table(name = "media_blobs")
+public class MediaBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash; // SHA-256 of the content, hex
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Last time an upload took a reference, the orphan sweep leaves recently used blobs alone
+    @Column(name = "last_referenced_at")
+    private LocalDateTime lastReferencedAt;
+
+    public MediaBlob() {
+    }
+
+    public MediaBlob(String hash, Long size) {
+        this.hash = hash;
+        this.size = size;
+        this.refCount = 0;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastReferencedAt() {
+        return lastReferencedAt;
+    }
+
+    public void setLastReferencedAt(LocalDateTime lastReferencedAt) {
+        this.lastReferencedAt = lastReferencedAt;
+    }
+}
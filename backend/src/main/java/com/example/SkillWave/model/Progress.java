@@ -3,6 +3,7 @@ package com.example.SkillWave.model;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 @Entity
@@ -45,6 +46,15 @@ public class Progress {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
     
+    // Values as last loaded from or written to the database, used to compute change events
+    @Transient
+    @JsonIgnore
+    private Integer persistedPercentage;
+    
+    @Transient
+    @JsonIgnore
+    private Boolean persistedCompleted;
+    
     // Default no-args constructor
     public Progress() {
         this.createdAt = LocalDateTime.now();
@@ -145,9 +155,27 @@ public class Progress {
         this.updatedAt = updatedAt;
     }
     
+    @JsonIgnore
+    public Integer getPersistedPercentage() {
+        return persistedPercentage;
+    }
+
+    @JsonIgnore
+    public Boolean getPersistedCompleted() {
+        return persistedCompleted;
+    }
+    
     // Pre-update hook
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+    
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void rememberPersistedState() {
+        this.persistedPercentage = progressPercentage;
+        this.persistedCompleted = completed;
+    }
 }
\ No newline at end of file
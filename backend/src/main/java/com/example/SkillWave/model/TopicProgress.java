@@ -0,0 +1,76 @@
+package com.example.SkillWave.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "learning_plan_topic_progress", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "plan_id"})
+})
+public class TopicProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "plan_id", nullable = false)
+    private Long planId;
+
+    // Bit i is set when topic i of the plan's ordered topic list is done (BitSet byte layout)
+    @Column(name = "completed_topics", nullable = false, length = 128)
+    private byte[] completedTopics = new byte[0];
+
+    private LocalDateTime updatedAt;
+
+    public TopicProgress() {
+    }
+
+    public TopicProgress(String userId, Long planId) {
+        this.userId = userId;
+        this.planId = planId;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(Long planId) {
+        this.planId = planId;
+    }
+
+    public byte[] getCompletedTopics() {
+        return completedTopics;
+    }
+
+    public void setCompletedTopics(byte[] completedTopics) {
+        this.completedTopics = completedTopics;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
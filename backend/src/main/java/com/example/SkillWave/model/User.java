@@ -1,5 +1,6 @@
 package com.example.SkillWave.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -43,6 +44,10 @@ public class User {
     private LocalDateTime lastLogin;
     private String bio;
     private String authProvider;
+
+    // Bumped to invalidate every token issued before; null until that first happens
+    @JsonIgnore
+    private Integer tokenVersion;
     
     @PrePersist
     public void prePersist() {
@@ -152,6 +157,14 @@ public class User {
     public void setLastLogin(LocalDateTime lastLogin) {
         this.lastLogin = lastLogin;
     }
+
+    public int getTokenVersion() {
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
     
     public String getBio() {
         return bio;
@@ -0,0 +1,89 @@
+package com.example.SkillWave.payload;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List view of a learning plan: scalar columns from a projection query, with topics and
+ * media URLs filled in by one batched query per collection for the whole page.
+ */
+public class LearningPlanSummary {
+    private Long id;
+    private String title;
+    private String description;
+    private String userId;
+    private String userName;
+    private String timeline;
+    private LocalDateTime targetCompletionDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<String> topics = new ArrayList<>();
+    private List<String> mediaUrls = new ArrayList<>();
+
+    public LearningPlanSummary(Long id, String title, String description, String userId, String userName,
+                               String timeline, LocalDateTime targetCompletionDate,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.userId = userId;
+        this.userName = userName;
+        this.timeline = timeline;
+        this.targetCompletionDate = targetCompletionDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getTimeline() {
+        return timeline;
+    }
+
+    public LocalDateTime getTargetCompletionDate() {
+        return targetCompletionDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<String> topics) {
+        this.topics = topics;
+    }
+
+    public List<String> getMediaUrls() {
+        return mediaUrls;
+    }
+
+    public void setMediaUrls(List<String> mediaUrls) {
+        this.mediaUrls = mediaUrls;
+    }
+}
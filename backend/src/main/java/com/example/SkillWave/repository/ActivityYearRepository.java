@@ -0,0 +1,16 @@
+package com.example.SkillWave.repository;
+
+import com.example.SkillWave.model.ActivityYear;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivityYearRepository extends JpaRepository<ActivityYear, Long> {
+
+    List<ActivityYear> findByUserId(String userId);
+
+    Optional<ActivityYear> findByUserIdAndYear(String userId, Integer year);
+}
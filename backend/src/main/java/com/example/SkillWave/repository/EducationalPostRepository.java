@@ -1,15 +1,19 @@
 package com.example.SkillWave.repository;
 
 import com.example.SkillWave.model.EducationalPost;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EducationalPostRepository extends JpaRepository<EducationalPost, Long> {
@@ -60,9 +64,18 @@ public interface EducationalPostRepository extends JpaRepository<EducationalPost
     @Query("SELECT p FROM EducationalPost p WHERE SIZE(p.mediaUrls) > 0")
     List<EducationalPost> findPostsWithMedia();
     
+    // Every media URL of every post, streamed in pages for the orphan media sweep
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT m FROM EducationalPost p JOIN p.mediaUrls m")
+    Stream<String> streamAllMediaUrls();
+    
     // Count posts by category
     long countByCategory(String category);
     
+    // Category of a single post without loading its collections
+    @Query("SELECT p.category FROM EducationalPost p WHERE p.id = :id")
+    Optional<String> findCategoryById(@Param("id") Long id);
+    
     // Find most used tags
     @Query("SELECT t, COUNT(t) FROM EducationalPost p JOIN p.tags t GROUP BY t ORDER BY COUNT(t) DESC")
     List<Object[]> findMostUsedTags(Pageable pageable);
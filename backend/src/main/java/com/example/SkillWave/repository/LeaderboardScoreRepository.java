@@ -0,0 +1,14 @@
+package com.example.SkillWave.repository;
+
+import com.example.SkillWave.model.LeaderboardScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeaderboardScoreRepository extends JpaRepository<LeaderboardScore, Long> {
+
+    List<LeaderboardScore> findByUserIdIn(Collection<String> userIds);
+}
@@ -1,17 +1,88 @@
 package com.example.SkillWave.repository;
 
 import com.example.SkillWave.model.LearningPlan;
+import com.example.SkillWave.payload.LearningPlanSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LearningPlanRepository extends JpaRepository<LearningPlan, Long> {
 
+    String SUMMARY_SELECT = "SELECT new com.example.SkillWave.payload.LearningPlanSummary(" +
+            "p.id, p.title, p.description, p.userId, p.userName, p.timeline, " +
+            "p.targetCompletionDate, p.createdAt, p.updatedAt) FROM LearningPlan p ";
+
+    // Offset-paged summaries, no collections are loaded
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(p) FROM LearningPlan p")
+    Page<LearningPlanSummary> findSummaries(Pageable pageable);
+    
+    // Keyset page: plans created before the cursor, newest first
+    @Query(SUMMARY_SELECT + "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<LearningPlanSummary> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id, Pageable pageable);
+    
+    // Keyset page: plans created after the cursor, oldest first
+    @Query(SUMMARY_SELECT + "WHERE p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    List<LearningPlanSummary> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id, Pageable pageable);
+    
+    // Batch fetch of collection elements for a page of plans: rows of (planId, value) in list order
+    @Query("SELECT p.id, t FROM LearningPlan p JOIN p.topics t WHERE p.id IN :ids ORDER BY p.id, INDEX(t)")
+    List<Object[]> findTopicsByPlanIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id, m FROM LearningPlan p JOIN p.mediaUrls m WHERE p.id IN :ids ORDER BY p.id, INDEX(m)")
+    List<Object[]> findMediaUrlsByPlanIds(@Param("ids") Collection<Long> ids);
+    
+    // Summaries for ids resolved from the in-memory indexes
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<LearningPlanSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Every (planId, topic) pair, used once to build the topic index
+    @Query("SELECT p.id, t FROM LearningPlan p JOIN p.topics t")
+    List<Object[]> findAllTopicPairs();
+    
+    @Query("SELECT p.id FROM LearningPlan p WHERE SIZE(p.mediaUrls) > 0")
+    List<Long> findIdsWithMedia();
+    
+    // Every (planId, resource) pair, used once to build the resource search index
+    @Query("SELECT p.id, r FROM LearningPlan p JOIN p.resources r")
+    List<Object[]> findAllResourcePairs();
+    
+    @Query("SELECT p.id, p.title, p.description FROM LearningPlan p")
+    List<Object[]> findAllTitlesAndDescriptions();
+
+    // Deadlines in a time window as (id, userId, targetCompletionDate), served by the target date index
+    @Query("SELECT p.id, p.userId, p.targetCompletionDate FROM LearningPlan p " +
+           "WHERE p.targetCompletionDate >= :from AND p.targetCompletionDate < :to")
+    List<Object[]> findDeadlinesBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.userId = :userId AND p.targetCompletionDate >= :from " +
+           "AND p.targetCompletionDate < :to ORDER BY p.targetCompletionDate ASC")
+    List<LearningPlanSummary> findUpcomingDeadlines(@Param("userId") String userId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+    
+    // Plans past their target date that the owner has not completed
+    @Query(SUMMARY_SELECT + "WHERE p.userId = :userId AND p.targetCompletionDate < :now " +
+           "AND NOT EXISTS (SELECT pr.id FROM Progress pr WHERE pr.userId = p.userId AND pr.contentId = p.id " +
+           "AND pr.contentType = 'LEARNING_PLAN' AND pr.completed = true) " +
+           "ORDER BY p.targetCompletionDate DESC")
+    List<LearningPlanSummary> findOverduePlans(@Param("userId") String userId, @Param("now") LocalDateTime now);
+    
     // Find plans by user ID
     List<LearningPlan> findByUserId(String userId);
     
@@ -52,6 +123,10 @@ public interface LearningPlanRepository extends JpaRepository<LearningPlan, Long
     @Query("SELECT p FROM LearningPlan p WHERE EXISTS (SELECT r FROM p.resources r WHERE LOWER(r) LIKE LOWER(CONCAT('%', :resource, '%')))")
     List<LearningPlan> findByResourceContaining(@Param("resource") String resource);
     
+    // Number of topics in a plan without loading the collection
+    @Query("SELECT SIZE(p.topics) FROM LearningPlan p WHERE p.id = :id")
+    Optional<Integer> countTopicsById(@Param("id") Long id);
+    
     // Count plans by topic
     @Query("SELECT COUNT(p) FROM LearningPlan p WHERE :topic MEMBER OF p.topics")
     Long countByTopic(@Param("topic") String topic);
@@ -59,4 +134,9 @@ public interface LearningPlanRepository extends JpaRepository<LearningPlan, Long
     // Find featured plans (can be customized based on your featured criteria)
     @Query("SELECT p FROM LearningPlan p WHERE SIZE(p.mediaUrls) > 0 ORDER BY p.createdAt DESC")
     List<LearningPlan> findFeaturedPlans();
+
+    // Every media URL of every plan, streamed in pages for the orphan media sweep
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT m FROM LearningPlan p JOIN p.mediaUrls m")
+    Stream<String> streamAllMediaUrls();
 }
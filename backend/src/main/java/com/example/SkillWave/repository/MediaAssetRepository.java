@@ -0,0 +1,44 @@
+package com.example.SkillWave.repository;
+
+import com.example.SkillWave.model.MediaAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaAssetRepository extends JpaRepository<MediaAsset, Long> {
+
+    // The lookup behind every media request, served by the unique path index
+    Optional<MediaAsset> findByFolderAndEntityIdAndFilename(String folder, Long entityId, String filename);
+
+    boolean existsByFolderAndEntityIdAndFilename(String folder, Long entityId, String filename);
+
+    boolean existsByStorageKey(String storageKey);
+
+    // First entry for the same content, its metadata is copied instead of probing again
+    Optional<MediaAsset> findFirstByStorageKey(String storageKey);
+
+    @Modifying
+    @Query("DELETE FROM MediaAsset a WHERE a.folder = ?1 AND a.entityId = ?2 AND a.filename = ?3")
+    int deleteByPath(String folder, Long entityId, String filename);
+
+    @Modifying
+    @Query("DELETE FROM MediaAsset a WHERE a.storageKey = ?1")
+    int deleteByStorageKey(String storageKey);
+
+    // Variant sizes are per stored object, shared by every URL naming it
+    @Modifying
+    @Query("UPDATE MediaAsset a SET a.thumbSize = ?2 WHERE a.storageKey = ?1")
+    int updateThumbSize(String storageKey, Long size);
+
+    @Modifying
+    @Query("UPDATE MediaAsset a SET a.mediumSize = ?2 WHERE a.storageKey = ?1")
+    int updateMediumSize(String storageKey, Long size);
+
+    @Modifying
+    @Query("UPDATE MediaAsset a SET a.largeSize = ?2 WHERE a.storageKey = ?1")
+    int updateLargeSize(String storageKey, Long size);
+}
@@ -0,0 +1,19 @@
+package com.example.SkillWave.repository;
+
+import com.example.SkillWave.model.MediaBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+    // Row lock held until commit, serializes refcount changes and blob file writes/deletes per hash
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM MediaBlob b WHERE b.hash = ?1")
+    Optional<MediaBlob> findForUpdate(String hash);
+}
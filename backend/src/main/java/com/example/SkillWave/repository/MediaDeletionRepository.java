@@ -0,0 +1,26 @@
+package com.example.SkillWave.repository;
+
+import com.example.SkillWave.model.MediaDeletion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MediaDeletionRepository extends JpaRepository<MediaDeletion, Long> {
+
+    // Oldest deletions that are due, ids only so nothing is held while they are worked through
+    @Query("SELECT d.id FROM MediaDeletion d WHERE d.nextAttemptAt <= ?1 ORDER BY d.id")
+    List<Long> findDueIds(LocalDateTime now, Pageable pageable);
+
+    // Row lock held until commit, a deletion is carried out by one worker only
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM MediaDeletion d WHERE d.id = ?1")
+    Optional<MediaDeletion> findForUpdate(Long id);
+}
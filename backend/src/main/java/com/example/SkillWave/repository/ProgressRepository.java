@@ -37,4 +37,26 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
     
     @Query("SELECT COUNT(p) FROM Progress p WHERE p.userId = ?1 AND p.progressPercentage > 0 AND p.progressPercentage < 100")
     long countInProgressByUser(String userId);
+    
+    // Per-user totals used to rebuild the global leaderboards: userId, points, completed count
+    @Query("SELECT p.userId, SUM(p.progressPercentage), SUM(CASE WHEN p.completed = true THEN 1 ELSE 0 END) " +
+           "FROM Progress p GROUP BY p.userId")
+    List<Object[]> sumScoresByUser();
+    
+    // Per-user totals per post category: userId, category, points, completed count
+    @Query("SELECT p.userId, e.category, SUM(p.progressPercentage), SUM(CASE WHEN p.completed = true THEN 1 ELSE 0 END) " +
+           "FROM Progress p, EducationalPost e WHERE p.contentType = 'EDUCATIONAL_POST' AND e.id = p.contentId " +
+           "AND e.category IS NOT NULL GROUP BY p.userId, e.category")
+    List<Object[]> sumScoresByUserAndCategory();
+    
+    // One user's totals: points, completed count (null when the user has no progress)
+    @Query("SELECT SUM(p.progressPercentage), SUM(CASE WHEN p.completed = true THEN 1 ELSE 0 END) " +
+           "FROM Progress p WHERE p.userId = ?1")
+    List<Object[]> sumScoresForUser(String userId);
+    
+    // One user's totals in one post category: points, completed count
+    @Query("SELECT SUM(p.progressPercentage), SUM(CASE WHEN p.completed = true THEN 1 ELSE 0 END) " +
+           "FROM Progress p, EducationalPost e WHERE p.userId = ?1 AND p.contentType = 'EDUCATIONAL_POST' " +
+           "AND e.id = p.contentId AND e.category = ?2")
+    List<Object[]> sumScoresForUserInCategory(String userId, String category);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.SkillWave.repository;
+
+import com.example.SkillWave.model.TopicProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TopicProgressRepository extends JpaRepository<TopicProgress, Long> {
+
+    Optional<TopicProgress> findByUserIdAndPlanId(String userId, Long planId);
+
+    List<TopicProgress> findByPlanId(Long planId);
+
+    void deleteByPlanId(Long planId);
+}
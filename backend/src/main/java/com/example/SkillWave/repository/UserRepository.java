@@ -2,8 +2,15 @@ package com.example.SkillWave.repository;
 
 import com.example.SkillWave.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +18,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByProviderIdAndAuthProvider(String providerId, String authProvider);
     Boolean existsByEmail(String email);
+
+    // {id, tokenVersion} of users who have revoked their tokens at least once
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findTokenVersions();
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Integer findTokenVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    // Never moves the time back, flushes may land out of order
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :id AND (u.lastLogin IS NULL OR u.lastLogin < :lastLogin)")
+    int updateLastLogin(@Param("id") Long id, @Param("lastLogin") LocalDateTime lastLogin);
+
+    // Replaces the hash only if it is still the one given
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePassword(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.example.SkillWave.security;
 
+import com.example.SkillWave.event.UserChangedEvent;
 import com.example.SkillWave.exception.OAuth2AuthenticationProcessingException;
 import com.example.SkillWave.model.User;
 import com.example.SkillWave.repository.UserRepository;
 import com.example.SkillWave.security.oauth2.user.OAuth2UserInfo;
 import com.example.SkillWave.security.oauth2.user.OAuth2UserInfoFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
@@ -25,6 +27,9 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public OAuth2User loadUser(OAuth2UserRequest oAuth2UserRequest) throws OAuth2AuthenticationException {
         OAuth2User oAuth2User = super.loadUser(oAuth2UserRequest);
@@ -77,13 +82,17 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setLastLogin(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User result = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.REGISTERED, result.getId(), result.getEmail()));
+        return result;
     }
 
     private User updateExistingUser(User existingUser, OAuth2UserInfo oAuth2UserInfo) {
         existingUser.setName(oAuth2UserInfo.getName());
         existingUser.setProfilePictureUrl(oAuth2UserInfo.getImageUrl());
         existingUser.setLastLogin(LocalDateTime.now());
-        return userRepository.save(existingUser);
+        User result = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.LOGGED_IN, result.getId(), result.getEmail()));
+        return result;
     }
 }
\ No newline at end of file
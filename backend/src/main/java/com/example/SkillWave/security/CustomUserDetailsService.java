@@ -2,7 +2,7 @@ package com.example.SkillWave.security;
 
 import com.example.SkillWave.exception.ResourceNotFoundException;
 import com.example.SkillWave.model.User;
-import com.example.SkillWave.repository.UserRepository;
+import com.example.SkillWave.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,12 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
                 .orElseThrow(() -> 
                         new UsernameNotFoundException("User not found with email : " + email));
 
@@ -31,7 +31,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         // Check if ID is numeric (for backward compatibility)
         if (id.matches("\\d+")) {
             Long numericId = Long.parseLong(id);
-            User user = userRepository.findById(numericId)
+            User user = userCache.findById(numericId)
                     .orElseThrow(() -> 
                             new ResourceNotFoundException("User not found with id: " + numericId));
             return UserPrincipal.create(user);
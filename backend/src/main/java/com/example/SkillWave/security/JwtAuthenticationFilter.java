@@ -1,11 +1,12 @@
 package com.example.SkillWave.security;
 
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,28 +25,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    // Public reads never look at the caller, so their token is not worth verifying
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/media/")) {
+            return !path.startsWith("/api/media/uploads/") && !path.startsWith("/api/media/cache/");
+        }
+        return path.startsWith("/api/educational-posts") || path.startsWith("/api/learning-plans");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
-            
-            // For debugging
-            if (jwt != null) {
-                System.out.println("Processing JWT token for: " + request.getRequestURI());
-            }
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            if (StringUtils.hasText(jwt)) {
+                VerifiedTokenCache.Verified verified = verifiedTokenCache.get(jwt);
+                if (verified == null) {
+                    Claims claims = tokenProvider.parseClaims(jwt);
+                    if (claims != null) {
+                        UserPrincipal principal = tokenProvider.principalFromClaims(claims);
+                        if (principal == null) {
+                            // Token without the user in it, load them
+                            principal = (UserPrincipal) customUserDetailsService.loadUserByUsername(claims.getSubject());
+                        }
+                        verified = verifiedTokenCache.put(jwt, principal, JwtTokenProvider.tokenVersion(claims),
+                                claims.getExpiration());
+                    }
+                }
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (verified != null && !tokenRevocations.isRevoked(verified.principal().getId(), verified.tokenVersion())) {
+                    UserPrincipal principal = verified.principal();
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
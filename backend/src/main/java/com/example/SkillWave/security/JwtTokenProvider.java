@@ -6,10 +6,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
 import java.security.Key;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtTokenProvider {
@@ -21,10 +26,26 @@ public class JwtTokenProvider {
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
+
+    // Embed the user in the token so requests are authenticated without loading the user
+    @Value("${app.jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+
+    private static final String ID_CLAIM = "uid";
+    private static final String NAME_CLAIM = "name";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String VERSION_CLAIM = "ver";
     
-    private Key getSigningKey() {
+    // Built once, both are immutable and thread safe
+    private Key signingKey;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
         // Using standard secure key generation for HS512
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -33,34 +54,63 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
-    }
-
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+                .claim(VERSION_CLAIM, userPrincipal.getTokenVersion());
+        if (statelessPrincipal) {
+            builder.claim(ID_CLAIM, userPrincipal.getId())
+                    .claim(NAME_CLAIM, userPrincipal.getDisplayName())
+                    .claim(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList());
+        }
+        return builder.signWith(signingKey, SignatureAlgorithm.HS512).compact();
     }
 
-    public boolean validateToken(String authToken) {
+    // Verifies the token and returns its claims in one pass, null if it is not valid
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
+            return null;
         }
-        return false;
     }
-}
\ No newline at end of file
+
+    // The user a verified token was issued to, or null when it does not carry the user
+    // (issued with stateless principals off) and the user has to be loaded
+    public UserPrincipal principalFromClaims(Claims claims) {
+        if (!statelessPrincipal) {
+            return null;
+        }
+        Number id = claims.get(ID_CLAIM, Number.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (id == null || roles == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        UserPrincipal principal = new UserPrincipal(id.longValue(), claims.getSubject(), null,
+                claims.get(NAME_CLAIM, String.class), authorities);
+        principal.setTokenVersion(tokenVersion(claims));
+        return principal;
+    }
+
+    // Tokens issued before versions existed count as version 0
+    public static int tokenVersion(Claims claims) {
+        Number version = claims.get(VERSION_CLAIM, Number.class);
+        return version == null ? 0 : version.intValue();
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.SkillWave.security;
+
+import com.example.SkillWave.event.UserChangedEvent;
+import com.example.SkillWave.exception.ServiceBusyException;
+import com.example.SkillWave.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Password hashing off the request threads. BCrypt is deliberately slow, so it runs on a
+ * fixed pool sized to the CPU with a bounded queue; when the queue is full the request is
+ * refused at once instead of piling up, and a login storm costs at most this pool. Hashes
+ * stored with a lower cost than configured are replaced on the next successful login.
+ */
+@Service
+public class PasswordHashingService {
+
+    // Sign-ins queued this deep clear in well under a second
+    private static final long BUSY_RETRY_SECONDS = 1;
+
+    // 0 means one thread per core
+    @Value("${app.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue:64}")
+    private int queueSize;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private ThreadPoolExecutor executor;
+
+    // Checked against for unknown emails, so a missing account takes as long as a wrong password
+    private String dummyHash;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        dummyHash = passwordEncoder.encode("unknown-account");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // False for a null hash (no such user, or one that signs in through OAuth2)
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        boolean known = encodedPassword != null;
+        String hash = known ? encodedPassword : dummyHash;
+        return submit(() -> passwordEncoder.matches(rawPassword, hash) && known);
+    }
+
+    // Called after a successful login; best effort, a busy pool leaves it for the next login
+    public void rehashIfNeeded(Long userId, String email, String encodedPassword, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return;
+        }
+        try {
+            encode(rawPassword).thenAccept(newHash -> {
+                // Only if the password was not changed in the meantime
+                if (userRepository.updatePassword(userId, encodedPassword, newHash) > 0) {
+                    eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREDENTIALS_UPDATED, userId, email));
+                }
+            }).exceptionally(e -> {
+                System.err.println("Could not rehash password of user " + userId + ": " + e.getMessage());
+                return null;
+            });
+        } catch (ServiceBusyException e) {
+            // next login
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many sign-ins in progress, please try again", BUSY_RETRY_SECONDS);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.SkillWave.security;
+
+import com.example.SkillWave.event.UserChangedEvent;
+import com.example.SkillWave.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version of every user who has revoked their tokens; a token carrying an
+ * older version is refused. Only users who ever revoked are in the table, so it stays small
+ * and a check is one map lookup. Versions only grow, the periodic reload picks up
+ * revocations made on other instances.
+ */
+@Component
+public class TokenRevocations {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        return current != null && tokenVersion < current;
+    }
+
+    // Invalidates every token issued to the user so far; returns the version new tokens carry
+    @Transactional
+    public int revokeAll(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        Integer version = userRepository.findTokenVersion(userId);
+        versions.merge(userId, version, Math::max);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.TOKENS_REVOKED, userId, null));
+        return version;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            for (Object[] row : userRepository.findTokenVersions()) {
+                versions.merge((Long) row[0], (Integer) row[1], Math::max);
+            }
+        } catch (Exception e) {
+            // Keep checking against what is already loaded
+            System.err.println("Could not load token revocations: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.SkillWave.security;
+
+import com.example.SkillWave.service.UploadAdmissionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Admission for request bodies carrying media (multipart forms, resumable upload chunks).
+// Runs after authorization and before the body is parsed, so a refused upload is never read.
+// Chunk bodies are read through a stream paced by the uploader's bucket. Tomcat parses
+// multipart bodies from the connector rather than through a request wrapper, so those can't
+// be paced and are charged their length up front instead.
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private final UploadAdmissionService uploadAdmissionService;
+
+    public UploadAdmissionFilter(UploadAdmissionService uploadAdmissionService) {
+        this.uploadAdmissionService = uploadAdmissionService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isMultipart(request) && !isChunk(request);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    private static boolean isChunk(HttpServletRequest request) {
+        return HttpMethod.PATCH.matches(request.getMethod())
+                && request.getRequestURI().startsWith(request.getContextPath() + "/api/media/uploads/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String uploader = uploader(request);
+        UploadAdmissionService.Decision decision = uploadAdmissionService.tryAdmit(uploader);
+        if (!decision.admitted()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            // The body is not read; don't keep the connection around for it
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"" + decision.reason() + "\"}");
+            return;
+        }
+        try {
+            if (isMultipart(request)) {
+                uploadAdmissionService.charge(uploader, request.getContentLengthLong());
+                filterChain.doFilter(request, response);
+            } else {
+                filterChain.doFilter(new PacedRequest(request, uploader), response);
+            }
+        } finally {
+            uploadAdmissionService.release();
+        }
+    }
+
+    private static String uploader(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Hands out the body through a stream that charges every read to the uploader's bucket
+    private final class PacedRequest extends HttpServletRequestWrapper {
+
+        private final String uploader;
+
+        private ServletInputStream body;
+
+        private PacedRequest(HttpServletRequest request, String uploader) {
+            super(request);
+            this.uploader = uploader;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                body = new PacedInputStream(super.getInputStream(), uploader);
+            }
+            return body;
+        }
+    }
+
+    private final class PacedInputStream extends ServletInputStream {
+
+        private final ServletInputStream in;
+
+        private final String uploader;
+
+        private PacedInputStream(ServletInputStream in, String uploader) {
+            this.in = in;
+            this.uploader = uploader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = in.read();
+            if (read != -1) {
+                uploadAdmissionService.pace(uploader, 1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                uploadAdmissionService.pace(uploader, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return in.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            in.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
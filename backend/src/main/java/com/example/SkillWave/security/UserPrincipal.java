@@ -20,6 +20,7 @@ public class UserPrincipal implements OAuth2User, UserDetails {
     private String name;
     private Collection<? extends GrantedAuthority> authorities;
     private Map<String, Object> attributes;
+    private int tokenVersion;
 
     public UserPrincipal(Long id, String email, String password, String name,
                          Collection<? extends GrantedAuthority> authorities) {
@@ -35,13 +36,15 @@ public class UserPrincipal implements OAuth2User, UserDetails {
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toList());
 
-        return new UserPrincipal(
+        UserPrincipal userPrincipal = new UserPrincipal(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 user.getName(),
                 authorities
         );
+        userPrincipal.setTokenVersion(user.getTokenVersion());
+        return userPrincipal;
     }
 
     public static UserPrincipal create(User user, Map<String, Object> attributes) {
@@ -58,6 +61,18 @@ public class UserPrincipal implements OAuth2User, UserDetails {
         return email;
     }
 
+    public String getDisplayName() {
+        return name;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -0,0 +1,76 @@
+package com.example.SkillWave.security;
+
+import com.example.SkillWave.util.TinyLfuCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+/**
+ * Tokens that passed signature verification, with the user they authenticate and the token
+ * version they carry (checked against revocations on every use). A repeat
+ * request with the same token is a digest and a hash lookup instead of a parse and a user
+ * query. Entries are keyed by the token's SHA-256, so tokens themselves are not kept, and
+ * expire with the token or after max-age, whichever is first, which bounds how long a
+ * changed account is seen with its old details.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record TokenDigest(long a, long b, long c, long d) {
+    }
+
+    public record Verified(UserPrincipal principal, int tokenVersion, long expiresAt) {
+    }
+
+    @Value("${app.jwt.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.jwt.cache.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    private TinyLfuCache<TokenDigest, Verified> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new TinyLfuCache<>(maxEntries, maxEntries, entry -> 1);
+    }
+
+    public Verified get(String token) {
+        TokenDigest digest = digest(token);
+        Verified entry = cache.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            cache.remove(digest);
+            return null;
+        }
+        return entry;
+    }
+
+    public Verified put(String token, UserPrincipal principal, int tokenVersion, Date expiration) {
+        long expiresAt = System.currentTimeMillis() + maxAgeMs;
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        Verified verified = new Verified(principal, tokenVersion, expiresAt);
+        cache.put(digest(token), verified);
+        return verified;
+    }
+
+    private static TokenDigest digest(String token) {
+        try {
+            ByteBuffer hash = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.SkillWave.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ActivityService {
+
+    void recordActivity(String userId, LocalDate date);
+
+    Map<String, Object> getStreaks(String userId);
+
+    Map<String, Object> getHeatmap(String userId, int days);
+}
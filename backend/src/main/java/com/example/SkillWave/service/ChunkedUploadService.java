@@ -0,0 +1,405 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.exception.BadRequestException;
+import com.example.SkillWave.exception.ForbiddenException;
+import com.example.SkillWave.exception.ResourceNotFoundException;
+import com.example.SkillWave.exception.UploadOffsetConflictException;
+import com.example.SkillWave.model.EducationalPost;
+import com.example.SkillWave.model.LearningPlan;
+import com.example.SkillWave.repository.EducationalPostRepository;
+import com.example.SkillWave.repository.LearningPlanRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable uploads for media too large to send in one multipart request. A client opens an
+ * upload with the final size, sends the bytes in chunks at explicit offsets and completes
+ * it. Chunks are written straight into one file in the staging directory with positional
+ * channel writes and hashed on the way in, so completing is a hand-over to the media store.
+ * A dropped connection keeps whatever reached the disk; the client asks for the offset and
+ * carries on from there. Upload state lives next to the data, so uploads survive restarts.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public record UploadStatus(String uploadId, String filename, long size, long offset) {
+    }
+
+    private static final class Upload {
+        final String id;
+        final Long ownerId;
+        final String filename;
+        final long size;
+        final String expectedHash; // optional, from the client
+        final long createdAt;
+        final ReentrantLock lock = new ReentrantLock();
+
+        // Running hash of the bytes received in order; lost on restart, then computed on completion
+        MessageDigest digest;
+        long hashedUpTo;
+
+        Upload(String id, Long ownerId, String filename, long size, String expectedHash, long createdAt) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.filename = filename;
+            this.size = size;
+            this.expectedHash = expectedHash;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @Value("${app.upload.chunked.max-file-size:2GB}")
+    private DataSize maxFileSize;
+
+    @Value("${app.upload.chunked.expiry-hours:24}")
+    private long expiryHours;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Autowired
+    private EducationalPostRepository educationalPostRepository;
+
+    @Autowired
+    private LearningPlanService learningPlanService;
+
+    @Autowired
+    private EducationalPostService educationalPostService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    // Catalogs the finished upload and adds it to its plan or post together
+    private TransactionTemplate attachTransaction;
+
+    @PostConstruct
+    public void init() {
+        attachTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public UploadStatus start(Long ownerId, String filename, long size, String expectedHash) {
+        if (ownerId == null) {
+            throw new BadRequestException("Uploads need a signed-in user");
+        }
+        if (filename == null || filename.isBlank()) {
+            throw new BadRequestException("Filename is required");
+        }
+        if (size <= 0 || size > maxFileSize.toBytes()) {
+            throw new BadRequestException("Size must be between 1 byte and " + maxFileSize.toMegabytes() + "MB");
+        }
+        if (expectedHash != null && !SHA256.matcher(expectedHash).matches()) {
+            throw new BadRequestException("sha256 must be 64 lower-case hex characters");
+        }
+
+        Upload upload = new Upload(UUID.randomUUID().toString().replace("-", ""), ownerId,
+                filename, size, expectedHash, System.currentTimeMillis());
+        upload.digest = sha256();
+        try {
+            Files.createDirectories(incomingDir());
+            Files.createFile(dataPath(upload.id));
+            writeMetadata(upload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start upload", e);
+        }
+        uploads.put(upload.id, upload);
+        return new UploadStatus(upload.id, filename, size, 0);
+    }
+
+    public UploadStatus status(Long ownerId, String uploadId) {
+        Upload upload = find(ownerId, uploadId);
+        return new UploadStatus(upload.id, upload.filename, upload.size, currentOffset(upload));
+    }
+
+    // Write one chunk at the given offset, which must be where the upload currently ends
+    public UploadStatus append(Long ownerId, String uploadId, long offset, InputStream body) throws IOException {
+        Upload upload = find(ownerId, uploadId);
+        if (!upload.lock.tryLock()) {
+            throw new UploadOffsetConflictException("Another chunk is being written", currentOffset(upload));
+        }
+        try {
+            long position = currentOffset(upload);
+            if (offset != position) {
+                throw new UploadOffsetConflictException("Upload is at offset " + position + ", not " + offset, position);
+            }
+            // The running hash only continues from where it stopped; otherwise completion rehashes
+            MessageDigest digest = upload.digest != null && upload.hashedUpTo == position ? upload.digest : null;
+
+            try (FileChannel channel = FileChannel.open(dataPath(upload.id), StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (position + read > upload.size) {
+                        throw new BadRequestException("Chunk runs past the declared size of " + upload.size + " bytes");
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        position += channel.write(chunk, position);
+                    }
+                    if (digest != null) {
+                        digest.update(buffer, 0, read);
+                        upload.hashedUpTo = position;
+                    }
+                }
+            }
+            if (digest == null) {
+                upload.digest = null;
+            }
+            return new UploadStatus(upload.id, upload.filename, upload.size, position);
+        } finally {
+            upload.lock.unlock();
+        }
+    }
+
+    // Move the finished file into the blob store, add it to the entity's media and return its URL
+    public Map<String, Object> complete(Long ownerId, String uploadId, String folder, Long entityId) throws IOException {
+        if (!MediaService.FOLDERS.contains(folder) || entityId == null) {
+            throw new BadRequestException("Folder must be one of " + MediaService.FOLDERS + " and entityId is required");
+        }
+        Upload upload = find(ownerId, uploadId);
+        checkOwnsEntity(ownerId, folder, entityId);
+        if (!upload.lock.tryLock()) {
+            throw new UploadOffsetConflictException("A chunk is still being written", currentOffset(upload));
+        }
+        try {
+            Path data = dataPath(upload.id);
+            long received = currentOffset(upload);
+            if (received != upload.size) {
+                throw new BadRequestException("Upload incomplete: " + received + " of " + upload.size + " bytes received");
+            }
+            // digest() resets the running hash; dropped first, so a retry after a failed
+            // hand-over hashes the file instead of reading an empty digest
+            MessageDigest digest = upload.hashedUpTo == upload.size ? upload.digest : null;
+            upload.digest = null;
+            String hash = digest != null ? HexFormat.of().formatHex(digest.digest()) : hashFile(data);
+            if (upload.expectedHash != null && !upload.expectedHash.equals(hash)) {
+                discard(upload);
+                throw new BadRequestException("Uploaded content does not match the sha256 given when the upload started");
+            }
+
+            MediaService.StoredMedia stored = mediaService.storeAssembledFile(data, hash, upload.size, upload.filename);
+            Files.deleteIfExists(metadataPath(upload.id));
+            uploads.remove(upload.id);
+
+            // The blob reference commits on its own; if attaching fails it is given back
+            String url;
+            try {
+                url = attachTransaction.execute(status -> attach(ownerId, folder, entityId, stored));
+            } catch (RuntimeException e) {
+                mediaService.releaseAll(List.of(stored));
+                throw e;
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("uploadId", upload.id);
+            response.put("url", url);
+            response.put("hash", hash);
+            response.put("size", upload.size);
+            return response;
+        } finally {
+            upload.lock.unlock();
+        }
+    }
+
+    private String attach(Long ownerId, String folder, Long entityId, MediaService.StoredMedia stored) {
+        // Checked again, the entity may have gone while the file was hashed and stored
+        checkOwnsEntity(ownerId, folder, entityId);
+        String url = mediaService.mediaUrls(List.of(stored), folder, entityId).get(0);
+        if (folder.equals("learning-plans")) {
+            learningPlanService.attachMedia(entityId, List.of(url));
+        } else {
+            educationalPostService.attachMedia(entityId, List.of(url));
+        }
+        return url;
+    }
+
+    // Media can only be attached to the caller's own plans and posts
+    private void checkOwnsEntity(Long ownerId, String folder, Long entityId) {
+        String entityOwner = folder.equals("learning-plans")
+                ? learningPlanRepository.findById(entityId).map(LearningPlan::getUserId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Learning plan not found: " + entityId))
+                : educationalPostRepository.findById(entityId).map(EducationalPost::getUserId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Educational post not found: " + entityId));
+        if (!String.valueOf(ownerId).equals(entityOwner)) {
+            throw new ForbiddenException("You can only add media to your own " + folder);
+        }
+    }
+
+    public void cancel(Long ownerId, String uploadId) throws IOException {
+        Upload upload = find(ownerId, uploadId);
+        upload.lock.lock();
+        try {
+            discard(upload);
+        } finally {
+            upload.lock.unlock();
+        }
+    }
+
+    // Abandoned uploads are deleted once they pass the expiry age
+    @Scheduled(fixedDelayString = "${app.upload.chunked.sweep-ms:3600000}")
+    public void removeExpiredUploads() {
+        Path dir = incomingDir();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - Duration.ofHours(expiryHours).toMillis();
+        try (DirectoryStream<Path> metadataFiles = Files.newDirectoryStream(dir, "*.properties")) {
+            for (Path metadata : metadataFiles) {
+                String id = metadata.getFileName().toString().replace(".properties", "");
+                Upload upload = load(id);
+                if (upload != null && upload.createdAt < cutoff && upload.lock.tryLock()) {
+                    try {
+                        discard(upload);
+                        System.out.println("Removed expired upload " + id);
+                    } finally {
+                        upload.lock.unlock();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing expired uploads: " + e.getMessage());
+        }
+    }
+
+    private Upload find(Long ownerId, String uploadId) {
+        Upload upload = uploadId != null && UPLOAD_ID.matcher(uploadId).matches() ? load(uploadId) : null;
+        // Someone else's upload is reported the same as a missing one
+        if (upload == null || ownerId == null || !upload.ownerId.equals(ownerId)) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        }
+        return upload;
+    }
+
+    // From memory, or from its metadata file after a restart
+    private Upload load(String uploadId) {
+        return uploads.computeIfAbsent(uploadId, id -> {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(metadataPath(id))) {
+                properties.load(reader);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Upload(id,
+                    Long.valueOf(properties.getProperty("ownerId")),
+                    properties.getProperty("filename"),
+                    Long.parseLong(properties.getProperty("size")),
+                    properties.getProperty("sha256"),
+                    Long.parseLong(properties.getProperty("createdAt")));
+        });
+    }
+
+    // Written beside the target and moved into place, a crash never leaves half a file
+    private void writeMetadata(Upload upload) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("ownerId", String.valueOf(upload.ownerId));
+        properties.setProperty("filename", upload.filename);
+        properties.setProperty("size", String.valueOf(upload.size));
+        properties.setProperty("createdAt", String.valueOf(upload.createdAt));
+        if (upload.expectedHash != null) {
+            properties.setProperty("sha256", upload.expectedHash);
+        }
+        Path target = metadataPath(upload.id);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void discard(Upload upload) throws IOException {
+        Files.deleteIfExists(dataPath(upload.id));
+        Files.deleteIfExists(metadataPath(upload.id));
+        uploads.remove(upload.id);
+    }
+
+    // Everything on disk has been received; chunks are only ever written at the end
+    private long currentOffset(Upload upload) {
+        try {
+            return Files.size(dataPath(upload.id));
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Upload not found: " + upload.id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Uploads in progress sit in the store's staging directory, so completing is a rename
+    private Path incomingDir() {
+        return mediaStore.stagingDir();
+    }
+
+    private Path dataPath(String uploadId) {
+        return incomingDir().resolve(uploadId + ".part");
+    }
+
+    private Path metadataPath(String uploadId) {
+        return incomingDir().resolve(uploadId + ".properties");
+    }
+
+    private static String hashFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.SkillWave.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface DeadlineService {
+
+    // Called after a plan is saved; replaces any pending reminder/overdue timers of the plan
+    void reschedule(Long planId, String userId, LocalDateTime targetCompletionDate);
+
+    void cancel(Long planId);
+
+    // Upcoming deadlines within the given number of days plus overdue, uncompleted plans
+    Map<String, Object> getDeadlines(String userId, int days);
+}
@@ -21,6 +21,8 @@ public interface EducationalPostService {
     // Media operations
     EducationalPost createPostWithMedia(EducationalPost post, MultipartFile[] mediaFiles);
     EducationalPost updatePostWithMedia(Long id, EducationalPost post, MultipartFile[] mediaFiles);
+    // Append media URLs whose blob references the caller already took
+    EducationalPost attachMedia(Long id, List<String> mediaUrls);
     
     // Search and query operations
     List<EducationalPost> getPostsByUser(String userId);
@@ -0,0 +1,126 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.util.TinyLfuCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small, frequently requested media (thumbnails, avatars) kept in direct buffers outside the
+ * heap, together with the validators needed to answer a request. A hit is served without
+ * touching the media store. Bounded by a byte budget with TinyLFU eviction; media files
+ * are never rewritten in place, so entries only have to be dropped when a file is deleted.
+ */
+@Service
+public class HotMediaCache {
+
+    public record CachedMedia(ByteBuffer content, String contentType, long lastModified, String etag) {
+        public long size() {
+            return content.capacity();
+        }
+    }
+
+    @Value("${app.media.cache.max-bytes:64MB}")
+    private DataSize maxBytes;
+
+    // Larger files are streamed from disk, they would push out many small ones
+    @Value("${app.media.cache.max-file-size:512KB}")
+    private DataSize maxFileSize;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    // Keyed by media store key
+    private TinyLfuCache<String, CachedMedia> cache;
+
+    // Bumped on every invalidation, so a load racing with a delete does not leave a stale entry
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private TinyLfuCache.Stats lastLoggedStats;
+
+    @PostConstruct
+    public void init() {
+        // Sketch sized for the budget filled with ~16KB thumbnails
+        int expectedEntries = (int) Math.min(1 << 20, Math.max(1024, maxBytes.toBytes() / (16 * 1024)));
+        cache = new TinyLfuCache<>(maxBytes.toBytes(), expectedEntries, CachedMedia::size);
+    }
+
+    public CachedMedia get(String key) {
+        return cache.get(key);
+    }
+
+    public boolean isCacheable(long size) {
+        return size > 0 && size <= maxFileSize.toBytes();
+    }
+
+    // Read the object into a direct buffer and cache it; null if it changed size while being read
+    public CachedMedia load(String key, long size, String contentType, long lastModified, String etag) throws IOException {
+        long stamp = invalidations.get();
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        Path local = mediaStore.localPath(key);
+        try (ReadableByteChannel channel = local != null
+                ? FileChannel.open(local, StandardOpenOption.READ)
+                : Channels.newChannel(mediaStore.open(key, 0, size))) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;
+                }
+            }
+        }
+        buffer.flip();
+        CachedMedia media = new CachedMedia(buffer.asReadOnlyBuffer(), contentType, lastModified, etag);
+        cache.put(key, media);
+        if (invalidations.get() != stamp) {
+            cache.remove(key);
+        }
+        return media;
+    }
+
+    // Drop a deleted object and its scaled variants
+    public void invalidate(String key) {
+        invalidations.incrementAndGet();
+        cache.remove(key);
+        for (ImageVariantService.Size size : ImageVariantService.Size.values()) {
+            cache.remove(ImageVariantService.variantKey(key, size));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        TinyLfuCache.Stats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", stats.hits());
+        response.put("misses", stats.misses());
+        response.put("hitRatio", stats.hitRatio());
+        response.put("evictions", stats.evictions());
+        response.put("rejectedAdmissions", stats.rejections());
+        response.put("entries", stats.entries());
+        response.put("bytes", stats.weight());
+        response.put("maxBytes", maxBytes.toBytes());
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.media.cache.stats-log-ms:300000}")
+    public void logStats() {
+        TinyLfuCache.Stats stats = cache.stats();
+        if (lastLoggedStats != null && stats.hits() + stats.misses() == lastLoggedStats.hits() + lastLoggedStats.misses()) {
+            return; // no media requests since the last report
+        }
+        lastLoggedStats = stats;
+        System.out.printf("Hot media cache: %d entries, %d KB, hit ratio %.3f (%d hits, %d misses, %d evictions)%n",
+                stats.entries(), stats.weight() / 1024, stats.hitRatio(), stats.hits(), stats.misses(), stats.evictions());
+    }
+}
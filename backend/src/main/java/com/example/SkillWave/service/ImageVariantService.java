@@ -0,0 +1,251 @@
+package com.example.SkillWave.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates scaled copies of uploaded images in the background, so list pages can load a
+ * thumbnail instead of the original. Variants are stored under "<key>.<size>" in the
+ * original's format. Images already smaller than a variant get a store-side copy of the
+ * original (a hard link on local disk).
+ */
+@Service
+public class ImageVariantService {
+
+    public enum Size {
+        THUMB(200),
+        MEDIUM(640),
+        LARGE(1280);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int maxDimension() {
+            return maxDimension;
+        }
+
+        public String suffix() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        // Null for unknown names and "original"
+        public static Size fromParameter(String value) {
+            if (value == null) {
+                return null;
+            }
+            for (Size size : values()) {
+                if (size.suffix().equalsIgnoreCase(value)) {
+                    return size;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Value("${app.media.variant-workers:2}")
+    private int workers;
+
+    @Value("${app.media.variant-queue:200}")
+    private int queueCapacity;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private MediaCatalog mediaCatalog;
+
+    // Originals with a job queued or running, so repeated triggers don't pile up
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        // Decoding a large image takes tens of megabytes, the pool bounds how many run at once
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static boolean isScalable(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    // Queue variant generation; a full queue drops the job, the next request for a variant retries
+    public void generateAsync(String original) {
+        if (!pending.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } catch (Exception e) {
+                    System.err.println("Could not create image variants for " + original + ": " + e.getMessage());
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+        }
+    }
+
+    public void deleteVariants(String original) throws IOException {
+        for (Size size : Size.values()) {
+            mediaStore.delete(variantKey(original, size));
+        }
+    }
+
+    public static String variantKey(String original, Size size) {
+        return original + "." + size.suffix();
+    }
+
+    private void generate(String original) throws IOException {
+        MediaStore.StoredObject stored = mediaStore.stat(original);
+        if (stored == null) {
+            return;
+        }
+        Path local = mediaStore.localPath(original);
+        try (InputStream remote = local == null ? mediaStore.open(original, 0, stored.size()) : null;
+             ImageInputStream input = ImageIO.createImageInputStream(local != null ? local.toFile() : remote)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return; // not an image ImageIO can read
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                // Decode only as many pixels as the largest variant needs, at least twice over
+                // for a clean downscale
+                int subsampling = Math.max(1, Math.max(width, height) / (Size.LARGE.maxDimension() * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                // Largest first, each smaller variant scales down from the previous one
+                Size[] sizes = {Size.LARGE, Size.MEDIUM, Size.THUMB};
+                for (Size size : sizes) {
+                    String target = variantKey(original, size);
+                    MediaStore.StoredObject existing = mediaStore.stat(target);
+                    if (existing == null) {
+                        if (Math.max(width, height) <= size.maxDimension()) {
+                            mediaStore.copy(original, target);
+                        } else {
+                            source = scale(source, size.maxDimension(), !"png".equals(format));
+                            write(source, format, target);
+                        }
+                        existing = mediaStore.stat(target);
+                    }
+                    // Requests learn from the catalog that the variant can be served
+                    if (existing != null) {
+                        mediaCatalog.recordVariant(original, size, existing.size());
+                    }
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halve repeatedly with bilinear filtering, then one last step to the exact size
+    private static BufferedImage scale(BufferedImage image, int maxDimension, boolean opaque) {
+        double ratio = (double) maxDimension / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (opaque) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // Encoded into the staging directory and handed to the store, readers never see a partial variant
+    private void write(BufferedImage image, String format, String target) throws IOException {
+        Path temp = mediaStore.stagingDir().resolve(UUID.randomUUID() + ".variant");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            mediaStore.put(target, temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
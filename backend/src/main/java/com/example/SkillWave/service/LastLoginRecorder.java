@@ -0,0 +1,76 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.event.UserChangedEvent;
+import com.example.SkillWave.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last login times, collected in memory and written in one transaction per flush instead of
+ * a read and a save on every login. Repeat logins of a user between flushes are one write.
+ */
+@Service
+public class LastLoginRecorder {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(Long userId) {
+        pending.put(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.last-login.flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> batch = new LinkedHashMap<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime time = pending.remove(userId);
+            if (time != null) {
+                batch.put(userId, time);
+            }
+        }
+        try {
+            transaction.executeWithoutResult(status -> batch.forEach((userId, time) -> {
+                userRepository.updateLastLogin(userId, time);
+                eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.LOGGED_IN, userId, null));
+            }));
+        } catch (Exception e) {
+            // Put back for the next flush, unless a newer login is already waiting
+            batch.forEach(pending::putIfAbsent);
+            System.err.println("Could not record " + batch.size() + " last logins: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.SkillWave.service;
+
+import java.util.Map;
+
+public interface LeaderboardService {
+
+    // metric is "completed" (completed items) or "points" (sum of progress percentages)
+    Map<String, Object> getTopLearners(String metric, String category, int limit);
+
+    Map<String, Object> getUserRank(String userId, String metric, String category);
+
+    void snapshot();
+}
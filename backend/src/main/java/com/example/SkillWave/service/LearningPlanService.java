@@ -1,18 +1,54 @@
 package com.example.SkillWave.service;
 
 import com.example.SkillWave.model.LearningPlan;
+import com.example.SkillWave.payload.LearningPlanSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface LearningPlanService {
     
     List<LearningPlan> getAllLearningPlans();
     
+    Page<LearningPlanSummary> getLearningPlanSummaries(Pageable pageable);
+    
+    // Keyset paging on (createdAt, id); descending returns plans older than the cursor
+    List<LearningPlanSummary> getLearningPlanSummaries(LocalDateTime createdAt, Long id, int size, boolean descending);
+    
+    // Newest plans carrying any (or all) of the topics, resolved from the in-memory topic index
+    List<LearningPlanSummary> getLearningPlansByTopics(List<String> topics, boolean matchAll, int limit);
+    
+    // Newest plans that have media
+    List<LearningPlanSummary> getFeaturedLearningPlans(int limit);
+    
+    List<Map<String, Object>> getPopularTopics(int limit);
+    
+    // Newest plans whose title/description and/or resources contain the query (case-insensitive)
+    List<LearningPlanSummary> searchLearningPlans(String query, boolean inText, boolean inResources, int limit);
+    
     LearningPlan getLearningPlanById(Long id);
     
     LearningPlan createLearningPlan(LearningPlan learningPlan);
     
     LearningPlan updateLearningPlan(Long id, LearningPlan learningPlan);
     
+    // Save the plan and attach uploaded media in one transaction
+    LearningPlan createLearningPlanWithMedia(LearningPlan learningPlan, MultipartFile[] media);
+    
+    // Replace the plan's fields and media with a single load of the plan: media not in
+    // keptMediaUrls is deleted, new uploads are appended after the kept URLs
+    LearningPlan updateLearningPlanWithMedia(Long id, LearningPlan changes, List<String> keptMediaUrls, MultipartFile[] newMedia);
+    
+    // Append media URLs whose blob references the caller already took
+    LearningPlan attachMedia(Long id, List<String> mediaUrls);
+    
+    // Apply only the fields present in the map; collections that are not patched are never loaded
+    LearningPlan patchLearningPlan(Long id, Map<String, Object> changes);
+    
     void deleteLearningPlan(Long id);
     
     boolean existsById(Long id);
@@ -1,20 +1,107 @@
 package com.example.SkillWave.service;
 
+import com.example.SkillWave.exception.BadRequestException;
 import com.example.SkillWave.exception.LearningPlanNotFoundException;
 import com.example.SkillWave.model.LearningPlan;
+import com.example.SkillWave.payload.LearningPlanSummary;
 import com.example.SkillWave.repository.LearningPlanRepository;
+import com.example.SkillWave.repository.TopicProgressRepository;
+import com.example.SkillWave.util.PostingIndex;
+import com.example.SkillWave.util.TrigramIndex;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 @Service
 public class LearningPlanServiceImpl implements LearningPlanService {
 
+    // Not mediaUrls: media is only added through uploads and removed through the deletion
+    // queue, both keep the blob reference counts and the catalog in step
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "title", "description", "topics", "resources", "timeline", "targetCompletionDate");
+
     private final LearningPlanRepository learningPlanRepository;
+    
+    private final TopicProgressRepository topicProgressRepository;
+    
+    private final TopicProgressService topicProgressService;
+    
+    private final MediaService mediaService;
+    
+    private final MediaDeletionQueue mediaDeletionQueue;
+    
+    private final DeadlineService deadlineService;
+    
+    // Topic -> sorted plan ids, kept in step with every plan write
+    private final PostingIndex topicIndex = new PostingIndex();
+    
+    // Ids of plans with media, ids grow with creation time so the tail is the newest
+    private final NavigableSet<Long> plansWithMedia = new ConcurrentSkipListSet<>();
+    
+    // Substring search over title + description, and over resource strings
+    private final TrigramIndex textIndex = new TrigramIndex();
+    
+    private final TrigramIndex resourceIndex = new TrigramIndex();
 
     @Autowired
-    public LearningPlanServiceImpl(LearningPlanRepository learningPlanRepository) {
+    public LearningPlanServiceImpl(LearningPlanRepository learningPlanRepository,
+                                   TopicProgressRepository topicProgressRepository,
+                                   TopicProgressService topicProgressService,
+                                   MediaService mediaService,
+                                   MediaDeletionQueue mediaDeletionQueue,
+                                   DeadlineService deadlineService) {
         this.learningPlanRepository = learningPlanRepository;
+        this.topicProgressRepository = topicProgressRepository;
+        this.topicProgressService = topicProgressService;
+        this.mediaService = mediaService;
+        this.mediaDeletionQueue = mediaDeletionQueue;
+        this.deadlineService = deadlineService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        Map<Long, List<String>> topicsByPlan = new HashMap<>();
+        for (Object[] row : learningPlanRepository.findAllTopicPairs()) {
+            topicsByPlan.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        topicIndex.load(topicsByPlan);
+        plansWithMedia.clear();
+        plansWithMedia.addAll(learningPlanRepository.findIdsWithMedia());
+        
+        Map<Long, List<String>> textsByPlan = new HashMap<>();
+        for (Object[] row : learningPlanRepository.findAllTitlesAndDescriptions()) {
+            textsByPlan.put((Long) row[0], Arrays.asList((String) row[1], (String) row[2]));
+        }
+        textIndex.load(textsByPlan);
+        
+        Map<Long, List<String>> resourcesByPlan = new HashMap<>();
+        for (Object[] row : learningPlanRepository.findAllResourcePairs()) {
+            resourcesByPlan.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        resourceIndex.load(resourcesByPlan);
     }
 
     @Override
@@ -22,6 +109,165 @@ public class LearningPlanServiceImpl implements LearningPlanService {
         return learningPlanRepository.findAll();
     }
 
+    @Override
+    public Page<LearningPlanSummary> getLearningPlanSummaries(Pageable pageable) {
+        Page<LearningPlanSummary> page = learningPlanRepository.findSummaries(pageable);
+        attachCollections(page.getContent());
+        return page;
+    }
+
+    @Override
+    public List<LearningPlanSummary> getLearningPlanSummaries(LocalDateTime createdAt, Long id, int size, boolean descending) {
+        Pageable limit = PageRequest.of(0, size);
+        List<LearningPlanSummary> summaries = descending
+                ? learningPlanRepository.findSummariesBefore(createdAt, id, limit)
+                : learningPlanRepository.findSummariesAfter(createdAt, id, limit);
+        attachCollections(summaries);
+        return summaries;
+    }
+
+    // Two queries for the whole page instead of two lazy loads per plan
+    private void attachCollections(List<LearningPlanSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<Long, LearningPlanSummary> byId = new HashMap<>();
+        for (LearningPlanSummary summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        for (Object[] row : learningPlanRepository.findTopicsByPlanIds(byId.keySet())) {
+            byId.get((Long) row[0]).getTopics().add((String) row[1]);
+        }
+        for (Object[] row : learningPlanRepository.findMediaUrlsByPlanIds(byId.keySet())) {
+            byId.get((Long) row[0]).getMediaUrls().add((String) row[1]);
+        }
+    }
+
+    @Override
+    public List<LearningPlanSummary> getLearningPlansByTopics(List<String> topics, boolean matchAll, int limit) {
+        long[] ids = matchAll ? topicIndex.all(topics) : topicIndex.any(topics);
+        List<Long> newest = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = ids.length - 1; i >= 0 && newest.size() < limit; i--) {
+            newest.add(ids[i]);
+        }
+        return loadSummaries(newest);
+    }
+
+    @Override
+    public List<LearningPlanSummary> getFeaturedLearningPlans(int limit) {
+        List<Long> newest = new ArrayList<>(limit);
+        Iterator<Long> iterator = plansWithMedia.descendingIterator();
+        while (iterator.hasNext() && newest.size() < limit) {
+            newest.add(iterator.next());
+        }
+        return loadSummaries(newest);
+    }
+
+    @Override
+    public List<Map<String, Object>> getPopularTopics(int limit) {
+        List<Map<String, Object>> topics = new ArrayList<>();
+        for (PostingIndex.KeyCount entry : topicIndex.top(limit)) {
+            Map<String, Object> topic = new HashMap<>();
+            topic.put("topic", entry.key());
+            topic.put("count", entry.count());
+            topics.add(topic);
+        }
+        return topics;
+    }
+
+    @Override
+    public List<LearningPlanSummary> searchLearningPlans(String query, boolean inText, boolean inResources, int limit) {
+        NavigableSet<Long> matches = new TreeSet<>();
+        if (inText) {
+            for (long id : textIndex.search(query)) {
+                matches.add(id);
+            }
+        }
+        if (inResources) {
+            for (long id : resourceIndex.search(query)) {
+                matches.add(id);
+            }
+        }
+        List<Long> newest = new ArrayList<>(Math.min(limit, matches.size()));
+        Iterator<Long> iterator = matches.descendingIterator();
+        while (iterator.hasNext() && newest.size() < limit) {
+            newest.add(iterator.next());
+        }
+        return loadSummaries(newest);
+    }
+
+    // Load summaries for ids already picked from the indexes, keeping their order
+    private List<LearningPlanSummary> loadSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<LearningPlanSummary> summaries = new ArrayList<>(learningPlanRepository.findSummariesByIdIn(ids));
+        summaries.sort(Comparator.comparingInt(summary -> ids.indexOf(summary.getId())));
+        attachCollections(summaries);
+        return summaries;
+    }
+
+    private void indexPlan(LearningPlan plan) {
+        indexTopics(plan);
+        indexText(plan);
+        indexResources(plan);
+        indexMedia(plan);
+        indexDeadline(plan);
+    }
+
+    // The indexes and deadline timers follow what is in the database: each change takes a
+    // copy of the plan's values now and applies it once the transaction commits, a rollback
+    // leaves them alone. Outside a transaction the write has already happened.
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void indexTopics(LearningPlan plan) {
+        Long id = plan.getId();
+        List<String> topics = new ArrayList<>(plan.getTopics());
+        afterCommit(() -> topicIndex.put(id, topics));
+    }
+
+    private void indexText(LearningPlan plan) {
+        Long id = plan.getId();
+        List<String> text = Arrays.asList(plan.getTitle(), plan.getDescription());
+        afterCommit(() -> textIndex.put(id, text));
+    }
+
+    private void indexResources(LearningPlan plan) {
+        Long id = plan.getId();
+        List<String> resources = new ArrayList<>(plan.getResources());
+        afterCommit(() -> resourceIndex.put(id, resources));
+    }
+
+    private void indexDeadline(LearningPlan plan) {
+        Long id = plan.getId();
+        String userId = plan.getUserId();
+        LocalDateTime deadline = plan.getTargetCompletionDate();
+        afterCommit(() -> deadlineService.reschedule(id, userId, deadline));
+    }
+
+    private void indexMedia(LearningPlan plan) {
+        Long id = plan.getId();
+        boolean hasMedia = plan.getMediaUrls() != null && !plan.getMediaUrls().isEmpty();
+        afterCommit(() -> {
+            if (hasMedia) {
+                plansWithMedia.add(id);
+            } else {
+                plansWithMedia.remove(id);
+            }
+        });
+    }
+
     @Override
     public LearningPlan getLearningPlanById(Long id) {
         return learningPlanRepository.findById(id)
@@ -30,10 +276,15 @@ public class LearningPlanServiceImpl implements LearningPlanService {
 
     @Override
     public LearningPlan createLearningPlan(LearningPlan learningPlan) {
-        return learningPlanRepository.save(learningPlan);
+        // Media is only attached through uploads, which take the blob references
+        learningPlan.setMediaUrls(List.of());
+        LearningPlan savedPlan = learningPlanRepository.save(learningPlan);
+        indexPlan(savedPlan);
+        return savedPlan;
     }
 
     @Override
+    @Transactional
     public LearningPlan updateLearningPlan(Long id, LearningPlan learningPlan) {
         if (id == null) {
             throw new IllegalArgumentException("Learning plan ID cannot be null");
@@ -56,7 +307,7 @@ public class LearningPlanServiceImpl implements LearningPlanService {
         }
         
         if (learningPlan.getTopics() != null) {
-            existingLearningPlan.setTopics(learningPlan.getTopics());
+            setTopics(existingLearningPlan, learningPlan.getTopics());
         }
         
         if (learningPlan.getResources() != null) {
@@ -67,19 +318,176 @@ public class LearningPlanServiceImpl implements LearningPlanService {
             existingLearningPlan.setTimeline(learningPlan.getTimeline());
         }
         
-        // Handle mediaUrls with null checks
-        if (learningPlan.getMediaUrls() != null) {
-            existingLearningPlan.setMediaUrls(learningPlan.getMediaUrls());
+        if (learningPlan.getTargetCompletionDate() != null) {
+            existingLearningPlan.setTargetCompletionDate(learningPlan.getTargetCompletionDate());
         }
+        
+        // mediaUrls are left alone: media is added through uploads and removed through
+        // updateLearningPlanWithMedia, which keep the blob reference counts in step
 
         existingLearningPlan.setTimeline(learningPlan.getTimeline());
 
-        return learningPlanRepository.save(existingLearningPlan);
+        LearningPlan savedPlan = learningPlanRepository.save(existingLearningPlan);
+        indexPlan(savedPlan);
+        return savedPlan;
+    }
+
+    @Override
+    @Transactional
+    public LearningPlan createLearningPlanWithMedia(LearningPlan learningPlan, MultipartFile[] media) {
+        // Store the media first, a rejected file fails the request before anything is saved
+        List<MediaService.StoredMedia> stored = mediaService.storeFiles(media);
+        LearningPlan savedPlan = learningPlanRepository.save(learningPlan);
+        if (!stored.isEmpty()) {
+            // The new id names the media path; the managed plan writes the URLs at commit
+            savedPlan.setMediaUrls(mediaService.mediaUrls(stored, "learning-plans", savedPlan.getId()));
+        }
+        indexPlan(savedPlan);
+        return savedPlan;
+    }
+
+    @Override
+    @Transactional
+    public LearningPlan updateLearningPlanWithMedia(Long id, LearningPlan changes, List<String> keptMediaUrls,
+                                                    MultipartFile[] newMedia) {
+        LearningPlan plan = getLearningPlanById(id);
+        // Store new media before removing any, a rejected file leaves the plan untouched
+        List<String> newMediaUrls = mediaService.mediaUrls(mediaService.storeFiles(newMedia), "learning-plans", id);
+
+        plan.setTitle(changes.getTitle());
+        plan.setDescription(changes.getDescription());
+        setTopics(plan, changes.getTopics() != null ? changes.getTopics() : new ArrayList<>());
+        plan.setResources(changes.getResources());
+        plan.setTimeline(changes.getTimeline());
+
+        List<String> removed = new ArrayList<>();
+        List<String> kept = MediaService.keepHeld(plan.getMediaUrls(), keptMediaUrls, removed);
+        // Removed media files are deleted in the background once this commits
+        mediaDeletionQueue.enqueue(removed);
+
+        List<String> mediaUrls = new ArrayList<>(kept);
+        mediaUrls.addAll(newMediaUrls);
+        plan.setMediaUrls(mediaUrls);
+
+        // The plan is managed, dirty checking writes it at commit
+        indexPlan(plan);
+        return plan;
+    }
+
+    @Override
+    @Transactional
+    public LearningPlan attachMedia(Long id, List<String> mediaUrls) {
+        LearningPlan plan = getLearningPlanById(id);
+        List<String> allMediaUrls = new ArrayList<>(plan.getMediaUrls());
+        allMediaUrls.addAll(mediaUrls);
+        plan.setMediaUrls(allMediaUrls);
+        indexMedia(plan);
+        return plan;
+    }
+
+    @Override
+    @Transactional
+    public LearningPlan patchLearningPlan(Long id, Map<String, Object> changes) {
+        for (String field : changes.keySet()) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new BadRequestException("Field cannot be patched: " + field);
+            }
+        }
+        LearningPlan plan = getLearningPlanById(id);
+
+        if (changes.containsKey("title")) {
+            plan.setTitle(requiredText(changes, "title"));
+        }
+        if (changes.containsKey("description")) {
+            plan.setDescription(requiredText(changes, "description"));
+        }
+        if (changes.containsKey("title") || changes.containsKey("description")) {
+            indexText(plan);
+        }
+        if (changes.containsKey("timeline")) {
+            plan.setTimeline(optionalText(changes, "timeline"));
+        }
+        if (changes.containsKey("targetCompletionDate")) {
+            plan.setTargetCompletionDate(parseDate(optionalText(changes, "targetCompletionDate")));
+            indexDeadline(plan);
+        }
+        if (changes.containsKey("topics")) {
+            setTopics(plan, textList(changes, "topics"));
+            indexTopics(plan);
+        }
+        if (changes.containsKey("resources")) {
+            plan.setResources(textList(changes, "resources"));
+            indexResources(plan);
+        }
+        return plan;
+    }
+
+    // Topic progress is kept per topic position, move it along with the topics
+    private void setTopics(LearningPlan plan, List<String> topics) {
+        List<String> oldTopics = new ArrayList<>(plan.getTopics());
+        plan.setTopics(topics);
+        topicProgressService.remapTopics(plan.getId(), oldTopics, topics);
+    }
+
+    private static String requiredText(Map<String, Object> changes, String field) {
+        String value = optionalText(changes, field);
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException(field + " cannot be empty");
+        }
+        return value;
+    }
+
+    private static String optionalText(Map<String, Object> changes, String field) {
+        Object value = changes.get(field);
+        if (value != null && !(value instanceof String)) {
+            throw new BadRequestException(field + " must be a string");
+        }
+        return (String) value;
+    }
+
+    private static List<String> textList(Map<String, Object> changes, String field) {
+        Object value = changes.get(field);
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new BadRequestException(field + " must be a list");
+        }
+        List<String> values = new ArrayList<>(list.size());
+        for (Object element : list) {
+            if (!(element instanceof String text)) {
+                throw new BadRequestException(field + " must only contain strings");
+            }
+            values.add(text);
+        }
+        return values;
+    }
+
+    // Accepts an ISO date-time or a plain date (start of that day)
+    private static LocalDateTime parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date: " + value);
+        }
     }
 
     @Override
+    @Transactional
     public void deleteLearningPlan(Long id) {
+        learningPlanRepository.findById(id).ifPresent(plan -> mediaDeletionQueue.enqueue(plan.getMediaUrls()));
+        topicProgressRepository.deleteByPlanId(id);
         learningPlanRepository.deleteById(id);
+        afterCommit(() -> {
+            topicIndex.remove(id);
+            plansWithMedia.remove(id);
+            textIndex.remove(id);
+            resourceIndex.remove(id);
+            deadlineService.cancel(id);
+        });
     }
 
     @Override
@@ -0,0 +1,203 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.model.MediaAsset;
+import com.example.SkillWave.repository.EducationalPostRepository;
+import com.example.SkillWave.repository.LearningPlanRepository;
+import com.example.SkillWave.repository.MediaAssetRepository;
+import com.example.SkillWave.util.MediaProbe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Metadata of every media URL (size, MIME type, dimensions, duration, content hash, owner and
+ * which scaled variants exist), written when the URL is handed out. Requests are answered
+ * from one indexed lookup here instead of probing the media store.
+ */
+@Service
+public class MediaCatalog {
+
+    @Value("${app.media.catalog.backfill:true}")
+    private boolean backfill;
+
+    @Autowired
+    private MediaAssetRepository mediaAssetRepository;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Autowired
+    private EducationalPostRepository educationalPostRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // For the backfill, which calls this service's own transactional methods
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public MediaAsset find(String folder, Long entityId, String filename) {
+        return mediaAssetRepository.findByFolderAndEntityIdAndFilename(folder, entityId, filename).orElse(null);
+    }
+
+    public boolean isCataloged(String storageKey) {
+        return mediaAssetRepository.existsByStorageKey(storageKey);
+    }
+
+    // Joins the caller's transaction, the entry exists only if the URL is saved. A URL that
+    // is already cataloged (the same file uploaded twice to one post) keeps its entry.
+    @Transactional
+    public void register(String folder, Long entityId, String filename, String storageKey, String contentHash,
+                         long size, MediaProbe.Info info) {
+        if (mediaAssetRepository.existsByFolderAndEntityIdAndFilename(folder, entityId, filename)) {
+            return;
+        }
+        MediaAsset asset = new MediaAsset(folder, entityId, filename, storageKey);
+        asset.setContentHash(contentHash);
+        asset.setSize(size);
+        asset.setContentType(info.contentType());
+        asset.setWidth(info.width());
+        asset.setHeight(info.height());
+        asset.setDurationMs(info.durationMs());
+        // Variants are per content, a new URL for known content inherits them
+        mediaAssetRepository.findFirstByStorageKey(storageKey).ifPresent(existing -> {
+            asset.setThumbSize(existing.getThumbSize());
+            asset.setMediumSize(existing.getMediumSize());
+            asset.setLargeSize(existing.getLargeSize());
+        });
+        mediaAssetRepository.save(asset);
+    }
+
+    @Transactional
+    public void remove(String folder, Long entityId, String filename) {
+        mediaAssetRepository.deleteByPath(folder, entityId, filename);
+    }
+
+    // Every URL of a stored object, when the object itself goes
+    @Transactional
+    public void removeStorageKey(String storageKey) {
+        mediaAssetRepository.deleteByStorageKey(storageKey);
+    }
+
+    @Transactional
+    public void recordVariant(String storageKey, ImageVariantService.Size size, long bytes) {
+        switch (size) {
+            case THUMB -> mediaAssetRepository.updateThumbSize(storageKey, bytes);
+            case MEDIUM -> mediaAssetRepository.updateMediumSize(storageKey, bytes);
+            case LARGE -> mediaAssetRepository.updateLargeSize(storageKey, bytes);
+        }
+    }
+
+    // Null while the variant has not been generated
+    public static Long variantSize(MediaAsset asset, ImageVariantService.Size size) {
+        return switch (size) {
+            case THUMB -> asset.getThumbSize();
+            case MEDIUM -> asset.getMediumSize();
+            case LARGE -> asset.getLargeSize();
+        };
+    }
+
+    // Media URLs saved before the catalog existed are cataloged once, in the background;
+    // until then they are served the old way
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (backfill) {
+            Thread.ofVirtual().name("media-catalog-backfill").start(this::backfill);
+        }
+    }
+
+    private void backfill() {
+        try {
+            Set<String> urls = new LinkedHashSet<>();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<String> planUrls = learningPlanRepository.streamAllMediaUrls()) {
+                    planUrls.forEach(urls::add);
+                }
+                try (Stream<String> postUrls = educationalPostRepository.streamAllMediaUrls()) {
+                    postUrls.forEach(urls::add);
+                }
+            });
+            int added = 0;
+            for (String url : urls) {
+                MediaService.MediaPath path = url == null ? null : MediaService.parseUrl(url);
+                if (path == null || mediaAssetRepository.existsByFolderAndEntityIdAndFilename(
+                        path.folder(), path.entityId(), path.filename())) {
+                    continue;
+                }
+                try {
+                    if (catalogExisting(path)) {
+                        added++;
+                    }
+                } catch (Exception e) {
+                    System.err.println("Could not catalog media " + url + ": " + e.getMessage());
+                }
+            }
+            if (added > 0) {
+                System.out.println("Media catalog: added " + added + " existing media files");
+            }
+        } catch (Exception e) {
+            System.err.println("Media catalog backfill failed: " + e.getMessage());
+        }
+    }
+
+    private boolean catalogExisting(MediaService.MediaPath path) throws IOException {
+        String key = path.storageKey();
+        MediaStore.StoredObject object = key == null ? null : mediaStore.stat(key);
+        if (object == null) {
+            return false;
+        }
+        MediaProbe.Info info;
+        Path local = mediaStore.localPath(key);
+        try (InputStream in = local != null ? Files.newInputStream(local) : mediaStore.open(key, 0, object.size())) {
+            info = MediaProbe.probe(in, path.filename());
+        }
+        String contentHash = key.indexOf('/') < 0 ? key : readHashSidecar(key);
+        Long[] variantSizes = new Long[ImageVariantService.Size.values().length];
+        for (ImageVariantService.Size size : ImageVariantService.Size.values()) {
+            MediaStore.StoredObject variant = mediaStore.stat(ImageVariantService.variantKey(key, size));
+            variantSizes[size.ordinal()] = variant != null ? variant.size() : null;
+        }
+        transaction.executeWithoutResult(status -> {
+            register(path.folder(), path.entityId(), path.filename(), key, contentHash, object.size(), info);
+            for (ImageVariantService.Size size : ImageVariantService.Size.values()) {
+                if (variantSizes[size.ordinal()] != null) {
+                    recordVariant(key, size, variantSizes[size.ordinal()]);
+                }
+            }
+        });
+        return true;
+    }
+
+    private String readHashSidecar(String key) throws IOException {
+        try (InputStream in = mediaStore.open(key + MediaService.HASH_SUFFIX, 0, 128)) {
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII).trim();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
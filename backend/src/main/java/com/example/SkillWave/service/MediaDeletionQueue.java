@@ -0,0 +1,133 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.model.MediaDeletion;
+import com.example.SkillWave.repository.MediaDeletionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Media deletions as an outbox: requests that drop media record the URLs in the same
+ * transaction as the entity change and return without touching the store; a background
+ * worker deletes the files in batches, retrying failures with backoff. A rolled back request
+ * leaves its media alone, and a deletion is never lost to a crash.
+ */
+@Service
+public class MediaDeletionQueue {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Value("${app.media.deletion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.media.deletion.max-attempts:10}")
+    private int maxAttempts;
+
+    @Autowired
+    private MediaDeletionRepository mediaDeletionRepository;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Joins the caller's transaction, the deletions happen only if it commits
+    @Transactional
+    public void enqueue(Collection<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            return;
+        }
+        List<MediaDeletion> deletions = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            deletions.add(new MediaDeletion(url));
+        }
+        mediaDeletionRepository.saveAll(deletions);
+    }
+
+    // Due deletions, one short transaction each; another node working the same queue waits
+    // on the row lock and then finds the entry gone
+    @Scheduled(fixedDelayString = "${app.media.deletion.interval-ms:2000}")
+    public void processDue() {
+        List<Long> due;
+        do {
+            due = mediaDeletionRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            int failed = 0;
+            for (Long id : due) {
+                if (!process(id)) {
+                    failed++;
+                }
+            }
+            if (failed > 0) {
+                System.out.println("Media deletion batch: " + (due.size() - failed) + " done, " + failed + " to retry");
+            }
+            // Failures are rescheduled; if even that failed (database down) wait for the next run
+            if (failed == due.size()) {
+                break;
+            }
+        } while (due.size() == batchSize);
+    }
+
+    private boolean process(Long id) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                MediaDeletion deletion = mediaDeletionRepository.findForUpdate(id).orElse(null);
+                if (deletion == null) {
+                    return; // done elsewhere
+                }
+                try {
+                    mediaService.deleteFile(deletion.getUrl());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                mediaDeletionRepository.delete(deletion);
+            });
+            return true;
+        } catch (Exception e) {
+            recordFailure(id, e);
+            return false;
+        }
+    }
+
+    // Exponential backoff from 30 seconds to an hour; past the last attempt the entry is
+    // dropped and whatever is left falls to the orphan sweep
+    private void recordFailure(Long id, Exception error) {
+        transaction.executeWithoutResult(status -> {
+            MediaDeletion deletion = mediaDeletionRepository.findForUpdate(id).orElse(null);
+            if (deletion == null) {
+                return;
+            }
+            int attempts = deletion.getAttempts() + 1;
+            String message = String.valueOf(error.getMessage());
+            if (attempts >= maxAttempts) {
+                System.err.println("Giving up deleting media " + deletion.getUrl() + " after " + attempts
+                        + " attempts: " + message);
+                mediaDeletionRepository.delete(deletion);
+                return;
+            }
+            deletion.setAttempts(attempts);
+            deletion.setNextAttemptAt(LocalDateTime.now().plusSeconds(Math.min(3600, 30L << Math.min(attempts - 1, 7))));
+            deletion.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        });
+    }
+}
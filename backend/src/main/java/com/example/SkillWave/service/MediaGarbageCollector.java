@@ -0,0 +1,295 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.repository.EducationalPostRepository;
+import com.example.SkillWave.repository.LearningPlanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Background sweep for media nothing links to any more: blobs whose reference count leaked
+ * (an upload whose post was never saved), files of entities deleted without their media,
+ * variants and temp files left behind by crashes. Each cycle snapshots every media URL in
+ * the database into a sorted array of 64-bit fingerprints, then walks the store a few shard
+ * directories per run, removing at most a fixed number of objects per run. Anything written
+ * or referenced within the grace period is kept, which covers uploads whose post is still
+ * being saved and URLs added after the snapshot.
+ */
+@Service
+public class MediaGarbageCollector {
+
+    // "<sha256>" for blobs, followed by ".thumb" etc. for variants or ".tmp-<uuid>" while written
+    private static final Pattern CONTENT_KEY = Pattern.compile("([0-9a-f]{64})(\\..+)?");
+
+    private static final Pattern DERIVED_SUFFIX = Pattern.compile(
+            "(\\.thumb|\\.medium|\\.large|" + Pattern.quote(MediaService.HASH_SUFFIX) + ")$");
+
+    private static final Pattern TEMP_SUFFIX = Pattern.compile("\\.tmp-[0-9a-f-]+$");
+
+    @Value("${app.media.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.media.gc.grace-hours:24}")
+    private long graceHours;
+
+    // Shard directories walked per run; 258 units in all (256 blob shards and two folders)
+    @Value("${app.media.gc.shards-per-run:4}")
+    private int shardsPerRun;
+
+    @Value("${app.media.gc.max-deletes-per-run:50}")
+    private int maxDeletesPerRun;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private MediaCatalog mediaCatalog;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Autowired
+    private EducationalPostRepository educationalPostRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private final List<String> units = new ArrayList<>();
+
+    // Position in units, the sweep resumes there on the next run
+    private int nextUnit;
+
+    // Sorted fingerprints of every referenced key, null between cycles
+    private long[] referenced;
+
+    private LocalDateTime cutoff;
+
+    private int cycleReclaimed;
+
+    private long cycleReclaimedBytes;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        for (int shard = 0; shard < 256; shard++) {
+            units.add(MediaStore.BLOB_DIR + "/" + String.format("%02x", shard));
+        }
+        units.addAll(MediaService.FOLDERS.stream().sorted().toList());
+    }
+
+    @Scheduled(initialDelayString = "${app.media.gc.interval-ms:10000}", fixedDelayString = "${app.media.gc.interval-ms:10000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (referenced == null) {
+                startCycle();
+            }
+            int budget = maxDeletesPerRun;
+            // Orphans past the budget are left for the next cycle, so a shard of objects that
+            // turn out not to be reclaimable cannot hold the sweep up
+            for (int i = 0; i < shardsPerRun && budget > 0 && nextUnit < units.size(); i++) {
+                budget = sweepUnit(units.get(nextUnit++), budget);
+            }
+            if (nextUnit == units.size()) {
+                finishCycle();
+            }
+        } catch (Exception e) {
+            // Never delete on a partial picture, start over with a fresh snapshot
+            System.err.println("Orphan media sweep failed: " + e.getMessage());
+            referenced = null;
+            nextUnit = 0;
+        }
+    }
+
+    private void startCycle() throws IOException {
+        cutoff = LocalDateTime.now().minusHours(graceHours);
+        referenced = snapshotReferences();
+        cycleReclaimed = 0;
+        cycleReclaimedBytes = 0;
+        sweepStaging();
+    }
+
+    private void finishCycle() {
+        System.out.println("Orphan media sweep done: " + referenced.length + " referenced keys, reclaimed "
+                + cycleReclaimed + " objects (" + cycleReclaimedBytes / 1024 + " KB)");
+        referenced = null;
+        nextUnit = 0;
+    }
+
+    // Every media URL of posts and plans, read in pages, reduced to one long per key
+    private long[] snapshotReferences() {
+        Fingerprints fingerprints = new Fingerprints();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> urls = learningPlanRepository.streamAllMediaUrls()) {
+                urls.forEach(fingerprints::addUrl);
+            }
+            try (Stream<String> urls = educationalPostRepository.streamAllMediaUrls()) {
+                urls.forEach(fingerprints::addUrl);
+            }
+        });
+        return fingerprints.sorted();
+    }
+
+    private class Fingerprints {
+        private long[] values = new long[1024];
+        private int count;
+
+        void addUrl(String url) {
+            String key = url == null ? null : MediaService.keyForUrl(url);
+            if (key == null) {
+                return;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = fingerprint(key);
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    // Remove orphans in one unit, up to budget; returns the budget left
+    private int sweepUnit(String unit, int budget) throws IOException {
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<String> orphans = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        // Collected first, so the walk never sees the listing change under it
+        mediaStore.walk(unit, (key, object) -> {
+            if (orphans.size() < budget && object.lastModified() < cutoffMillis && isOrphan(key)) {
+                orphans.add(key);
+                sizes.add(object.size());
+            }
+        });
+        for (int i = 0; i < orphans.size(); i++) {
+            try {
+                if (reclaim(orphans.get(i))) {
+                    cycleReclaimed++;
+                    cycleReclaimedBytes += sizes.get(i);
+                }
+            } catch (Exception e) {
+                // Left for the next cycle, the rest of the shard is still swept
+                System.err.println("Error reclaiming media " + orphans.get(i) + ": " + e.getMessage());
+            }
+        }
+        return budget - orphans.size();
+    }
+
+    private boolean isOrphan(String key) throws IOException {
+        if (TEMP_SUFFIX.matcher(key).find()) {
+            return true; // an abandoned write
+        }
+        Matcher content = CONTENT_KEY.matcher(key);
+        if (content.matches()) {
+            String hash = content.group(1);
+            String suffix = content.group(2);
+            if (isReferenced(hash)) {
+                return false;
+            }
+            // A variant goes with its blob; on its own only once the blob is gone, which the
+            // catalog answers without touching the store for anything uploaded since it exists
+            return suffix == null || !mediaCatalog.isCataloged(hash) && mediaStore.stat(hash) == null;
+        }
+        if (key.indexOf('/') < 0) {
+            return false; // not something this application wrote
+        }
+        return !isReferenced(baseKey(key));
+    }
+
+    private boolean reclaim(String key) throws IOException {
+        Matcher content = CONTENT_KEY.matcher(key);
+        if (content.matches() && content.group(2) == null) {
+            boolean reclaimed = mediaService.reclaimBlob(key, cutoff);
+            if (reclaimed) {
+                System.out.println("Reclaimed orphaned blob: " + key);
+            }
+            return reclaimed;
+        }
+        if (key.indexOf('/') >= 0 && !TEMP_SUFFIX.matcher(key).find() && baseKey(key).equals(key)) {
+            mediaService.reclaimEntityFile(key);
+        } else if (mediaStore.stat(key) != null) {
+            mediaStore.delete(key);
+        } else {
+            return false; // went with its upload earlier in this run
+        }
+        System.out.println("Reclaimed orphaned media file: " + key);
+        return true;
+    }
+
+    // Files in the staging directory outlive the grace period only when a write crashed;
+    // chunked upload sessions expire on their own schedule
+    private void sweepStaging() throws IOException {
+        Path staging = mediaStore.stagingDir();
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(staging, file -> {
+            String name = file.getFileName().toString();
+            return !name.endsWith(".part") && !name.endsWith(".properties") && Files.isRegularFile(file)
+                    && Files.getLastModifiedTime(file).toMillis() < cutoffMillis;
+        })) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                cycleReclaimed++;
+            }
+        }
+    }
+
+    private boolean isReferenced(String key) {
+        return Arrays.binarySearch(referenced, fingerprint(key)) >= 0;
+    }
+
+    // The upload a sidecar, variant or temp file belongs to
+    private static String baseKey(String key) {
+        String base = key;
+        Matcher suffix = DERIVED_SUFFIX.matcher(base);
+        while (suffix.find()) {
+            base = base.substring(0, suffix.start());
+            suffix = DERIVED_SUFFIX.matcher(base);
+        }
+        return base;
+    }
+
+    // Blob hashes are already uniform, other keys get FNV-1a; a collision only keeps an orphan
+    private static long fingerprint(String key) {
+        if (key.length() == 64 && CONTENT_KEY.matcher(key).matches()) {
+            return Long.parseUnsignedLong(key.substring(0, 16), 16);
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
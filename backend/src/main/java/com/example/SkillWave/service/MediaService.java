@@ -1,114 +1,647 @@
 package com.example.SkillWave.service;
 
+import com.example.SkillWave.model.MediaBlob;
+import com.example.SkillWave.repository.MediaBlobRepository;
+import com.example.SkillWave.exception.BadRequestException;
+import com.example.SkillWave.util.MediaProbe;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
-import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class MediaService {
 
-    @Value("${app.upload.dir:./uploads}")
-    private String uploadDir;
-    
+    // Content hash written next to each upload made before blobs, served as its ETag
+    public static final String HASH_SUFFIX = ".sha256";
+
+    private static final String MEDIA_PATH = "/api/media/";
+
+    // Entity folders media URLs can name
+    public static final Set<String> FOLDERS = Set.of("learning-plans", "educational-posts");
+
+    // Entity media URLs end in "<sha256>.<ext>" once they point at a blob
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(\\.[A-Za-z0-9]{1,10})?");
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    private static final int ETAG_CACHE_SIZE = 10_000;
+
+    private static final int BLOB_LOCK_STRIPES = 64;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    // An upload moved into the blob store, not yet tied to an entity
+    public record MediaPath(String folder, Long entityId, String filename) {
+        // Null for names that cannot be media
+        public String storageKey() {
+            return resolveKey(folder, entityId, filename);
+        }
+    }
+
+    public record StoredMedia(String hash, String extension, long size, MediaProbe.Info info) {
+    }
+
+    private record CachedETag(String etag, long lastModified) {
+    }
+
+    // Uploads are immutable, so an ETag stays valid until the file is replaced or deleted
+    private final Map<String, CachedETag> etagCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedETag> eldest) {
+            return size() > ETAG_CACHE_SIZE;
+        }
+    };
+
     @Value("${app.base.url:http://localhost:8080}")
     private String baseUrl;
 
+    // Files of one request processed at the same time
+    @Value("${app.upload.parallelism:4}")
+    private int uploadParallelism;
+
+    // Files hashed and written at the same time across all requests, so uploads leave disk
+    // bandwidth for reads
+    @Value("${app.upload.max-concurrent-writes:8}")
+    private int maxConcurrentWrites;
+
+    @Value("${spring.servlet.multipart.max-file-size:20MB}")
+    private DataSize maxFileSize;
+
+    @Autowired
+    private MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private HotMediaCache hotMediaCache;
+
+    @Autowired
+    private MediaCatalog mediaCatalog;
+
+    // Within this instance, concurrent first uploads of one hash wait for a single writer
+    // instead of all writing the file and racing on the insert. Locks rather than monitors,
+    // uploads run on virtual threads and block on JDBC while holding them.
+    private final ReentrantLock[] blobLocks = new ReentrantLock[BLOB_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < blobLocks.length; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // Refcount changes commit on their own, independent of the entity transaction around them
+    private TransactionTemplate blobTransaction;
+
+    // Releases from the deletion queue commit with the queue entry instead
+    private TransactionTemplate joinedTransaction;
+
+    private Semaphore writePermits;
+
     @PostConstruct
     public void init() {
-        try {
-            Path rootDir = Paths.get(uploadDir);
-            if (!Files.exists(rootDir)) {
-                Files.createDirectories(rootDir);
-                System.out.println("Created root upload directory: " + rootDir);
-            }
-        } catch (IOException e) {
-            System.err.println("Could not initialize storage: " + e.getMessage());
-            e.printStackTrace();
-        }
+        blobTransaction = new TransactionTemplate(transactionManager);
+        blobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        joinedTransaction = new TransactionTemplate(transactionManager);
+        writePermits = new Semaphore(maxConcurrentWrites, true);
     }
-    
-    public List<String> uploadFiles(MultipartFile[] files, String folder, Long entityId) {
-        List<String> fileUrls = new ArrayList<>();
-        
-        try {
-            // Create entity directory if it doesn't exist
-            Path entityDir = Paths.get(uploadDir, folder, entityId.toString());
-            if (!Files.exists(entityDir)) {
-                Files.createDirectories(entityDir);
-            }
-            
+
+    // Store every file concurrently on virtual threads, at most uploadParallelism at a time.
+    // All or nothing: if one file is rejected the others are released again. Inside a
+    // transaction the references are also released if it rolls back.
+    public List<StoredMedia> storeFiles(MultipartFile[] files) {
+        List<MultipartFile> parts = new ArrayList<>();
+        if (files != null) {
             for (MultipartFile file : files) {
                 if (file != null && !file.isEmpty()) {
+                    parts.add(file);
+                }
+            }
+        }
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+
+        Semaphore permits = new Semaphore(uploadParallelism);
+        List<Future<StoredMedia>> futures = new ArrayList<>(parts.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile part : parts) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
                     try {
-                        // Generate a unique filename
-                        String originalFilename = file.getOriginalFilename();
-                        String extension = originalFilename != null ? 
-                                originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-                        String newFilename = UUID.randomUUID().toString() + extension;
-                        
-                        // Save the file
-                        Path filePath = entityDir.resolve(newFilename);
-                        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-                        
-                        // Generate the URL that can be accessed through your controller
-                        String fileUrl = baseUrl + "/api/media/" + folder + "/" + entityId + "/" + newFilename;
-                        fileUrls.add(fileUrl);
-                        
-                        System.out.println("Saved file: " + filePath + ", URL: " + fileUrl);
-                    } catch (Exception e) {
-                        e.printStackTrace();
+                        writePermits.acquire();
+                        try {
+                            return storeFile(part);
+                        } finally {
+                            writePermits.release();
+                        }
+                    } finally {
+                        permits.release();
                     }
+                }));
+            }
+        } // close() waits for every task
+
+        List<StoredMedia> stored = new ArrayList<>(parts.size());
+        RuntimeException failure = null;
+        for (Future<StoredMedia> future : futures) {
+            try {
+                stored.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtime
+                            ? runtime
+                            : new RuntimeException("Could not store media file", e.getCause());
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new RuntimeException("Interrupted while storing media files", e);
+            }
+        }
+        if (failure != null) {
+            releaseAll(stored);
+            throw failure;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        releaseAll(stored);
+                    }
+                }
+            });
+        }
+
+        // Thumbnails and responsive sizes are made in the background, the request doesn't wait
+        for (StoredMedia media : stored) {
+            if (ImageVariantService.isScalable(media.extension())) {
+                imageVariantService.generateAsync(media.hash());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        
+        return stored;
+    }
+
+    // URLs naming the stored blobs under an entity's media path, in upload order, each
+    // cataloged in the caller's transaction
+    public List<String> mediaUrls(List<StoredMedia> stored, String folder, Long entityId) {
+        List<String> fileUrls = new ArrayList<>(stored.size());
+        for (StoredMedia media : stored) {
+            String filename = media.hash() + media.extension();
+            mediaCatalog.register(folder, entityId, filename, media.hash(), media.hash(), media.size(), media.info());
+            fileUrls.add(baseUrl + MEDIA_PATH + folder + "/" + entityId + "/" + filename);
+        }
         return fileUrls;
     }
-    
-    public void deleteFile(String fileUrl) {
+
+    // Of the URLs a client asks to keep, only those the entity holds, each as often as it holds
+    // it; anything else is ignored, a URL naming another entity's blob would otherwise be
+    // released without ever having been referenced. What is not kept is added to 'removed'.
+    public static List<String> keepHeld(List<String> held, List<String> requested, List<String> removed) {
+        List<String> remaining = new ArrayList<>(held);
+        List<String> kept = new ArrayList<>();
+        for (String url : requested) {
+            if (remaining.remove(url)) {
+                kept.add(url);
+            }
+        }
+        removed.addAll(remaining);
+        return kept;
+    }
+
+    // Remove the media behind a URL: a blob loses a reference, an upload from before blobs
+    // loses its file. Joins the caller's transaction, so a queued deletion and its queue entry
+    // commit together.
+    public void deleteFile(String fileUrl) throws IOException {
+        MediaPath path = parseUrl(fileUrl);
+        String key = path == null ? null : path.storageKey();
+        if (key == null) {
+            return;
+        }
+        mediaCatalog.remove(path.folder(), path.entityId(), path.filename());
+        if (key.indexOf('/') < 0) {
+            releaseBlob(key, joinedTransaction);
+            return;
+        }
+        if (mediaStore.stat(key) != null) {
+            reclaimEntityFile(key);
+        }
+    }
+
+    // Store key behind a media URL path: the content hash for blob names, the entity path
+    // for older uploads; null for names that cannot be media
+    public static String resolveKey(String folder, Long entityId, String filename) {
+        Matcher blobName = BLOB_NAME.matcher(filename);
+        if (blobName.matches()) {
+            return blobName.group(1);
+        }
+        if (!FOLDERS.contains(folder) || filename.endsWith(HASH_SUFFIX)
+                || filename.contains("/") || filename.contains("\\") || filename.startsWith(".")) {
+            return null;
+        }
+        return folder + "/" + entityId + "/" + filename;
+    }
+
+    // Store key named by a stored media URL, whatever base URL it was written with; null
+    // for URLs that are not ours
+    public static String keyForUrl(String fileUrl) {
+        MediaPath path = parseUrl(fileUrl);
+        return path == null ? null : path.storageKey();
+    }
+
+    // Owner and file name of a media URL; null for URLs that are not ours
+    public static MediaPath parseUrl(String fileUrl) {
+        int start = fileUrl.indexOf(MEDIA_PATH);
+        if (start < 0) {
+            return null;
+        }
+        String[] pathParts = fileUrl.substring(start + MEDIA_PATH.length()).split("/");
+        if (pathParts.length != 3) {
+            return null;
+        }
+        try {
+            return new MediaPath(pathParts[0], Long.valueOf(pathParts[1]), pathParts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Strong ETag from the content hash, which blobs carry as their key and older uploads in
+    // a sidecar; files uploaded before hashes were kept get a weak one from size and mtime
+    public String getETag(String key, MediaStore.StoredObject object) throws IOException {
+        if (key.indexOf('/') < 0) {
+            return "\"" + key + "\"";
+        }
+        long lastModified = object.lastModified();
+        synchronized (etagCache) {
+            CachedETag cached = etagCache.get(key);
+            if (cached != null && cached.lastModified() == lastModified) {
+                return cached.etag();
+            }
+        }
+        String etag;
+        try (InputStream in = mediaStore.open(key + HASH_SUFFIX, 0, 128)) {
+            etag = "\"" + new String(in.readAllBytes(), StandardCharsets.US_ASCII).trim() + "\"";
+        } catch (NoSuchFileException e) {
+            etag = "W/\"" + Long.toHexString(object.size()) + "-" + Long.toHexString(lastModified) + "\"";
+        }
+        synchronized (etagCache) {
+            etagCache.put(key, new CachedETag(etag, lastModified));
+        }
+        return etag;
+    }
+
+    // ETag of a scaled variant: the original's content hash plus the size for blobs, a weak one
+    // from the variant file itself otherwise
+    public String getVariantETag(String originalKey, MediaStore.StoredObject variant, ImageVariantService.Size size) {
+        if (originalKey.indexOf('/') < 0) {
+            return "\"" + originalKey + "-" + size.suffix() + "\"";
+        }
+        return "W/\"" + Long.toHexString(variant.size()) + "-" + Long.toHexString(variant.lastModified()) + "\"";
+    }
+
+    // The upload is moved into the staging directory (multipart parts spooled to disk are
+    // renamed, not copied), then one pass over the staged file hashes it, checks its size and
+    // probes its header; only new content is then handed to the store, known content just
+    // gains a reference
+    private StoredMedia storeFile(MultipartFile file) throws IOException {
+        String filename = String.valueOf(file.getOriginalFilename());
+        Path staged = mediaStore.stagingDir().resolve("upload.tmp-" + UUID.randomUUID());
+        try {
+            file.transferTo(staged.toFile());
+            HashingInputStream in;
+            MediaProbe.Info info;
+            try (HashingInputStream hashing = new HashingInputStream(Files.newInputStream(staged), filename)) {
+                in = hashing;
+                // The probe reads the header through the hash, the rest follows it
+                info = MediaProbe.probe(in, filename);
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            if (in.size != file.getSize()) {
+                throw new BadRequestException("File " + filename + " was not received completely");
+            }
+            String hash = HexFormat.of().formatHex(in.digest.digest());
+            acquireBlob(hash, in.size, staged);
+            return new StoredMedia(hash, extension(file.getOriginalFilename()), in.size, info);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    // Hashes and counts what is read. Skipped bytes are read too, so the probe can seek past
+    // media data without leaving gaps in the hash.
+    private final class HashingInputStream extends FilterInputStream {
+
+        private final String filename;
+
+        private final MessageDigest digest = sha256();
+
+        private long size;
+
+        private HashingInputStream(InputStream in, String filename) {
+            super(in);
+            this.filename = filename;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            // Checked again on the next read, the probe swallows what it throws
+            if (size > maxFileSize.toBytes()) {
+                throw tooLarge();
+            }
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                size += read;
+                if (size > maxFileSize.toBytes()) {
+                    throw tooLarge();
+                }
+                digest.update(buffer, offset, read);
+            }
+            return read;
+        }
+
+        private BadRequestException tooLarge() {
+            return new BadRequestException("File " + filename + " exceeds " + maxFileSize.toMegabytes() + "MB");
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, READ_BUFFER_SIZE)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    // Take over a file assembled in the staging directory, hashed by the caller while it was
+    // written. New content is moved into the store, known content is deleted.
+    public StoredMedia storeAssembledFile(Path file, String hash, long size, String originalFilename) throws IOException {
+        MediaProbe.Info info;
+        writePermits.acquireUninterruptibly();
         try {
-            // Parse the URL to get file path components
-            // URL format: baseUrl + "/api/media/" + folder + "/" + entityId + "/" + filename
-            String baseUrlPrefix = baseUrl + "/api/media/";
-            if (fileUrl.startsWith(baseUrlPrefix)) {
-                String relativePath = fileUrl.substring(baseUrlPrefix.length());
-                String[] pathParts = relativePath.split("/");
-                
-                if (pathParts.length >= 3) {
-                    String folder = pathParts[0];
-                    String entityId = pathParts[1];
-                    String filename = pathParts[2];
-                    
-                    Path filePath = Paths.get(uploadDir, folder, entityId, filename);
-                    if (Files.exists(filePath)) {
-                        Files.delete(filePath);
-                        System.out.println("Deleted file: " + filePath);
-                        
-                        // Check if directory is empty and delete if it is
-                        Path entityDir = Paths.get(uploadDir, folder, entityId);
-                        if (Files.exists(entityDir) && Files.list(entityDir).count() == 0) {
-                            Files.delete(entityDir);
-                            System.out.println("Deleted empty directory: " + entityDir);
+            try (InputStream in = Files.newInputStream(file)) {
+                info = MediaProbe.probe(in, String.valueOf(originalFilename));
+            }
+            acquireBlob(hash, size, file);
+        } finally {
+            writePermits.release();
+        }
+        Files.deleteIfExists(file);
+        StoredMedia stored = new StoredMedia(hash, extension(originalFilename), size, info);
+        if (ImageVariantService.isScalable(stored.extension())) {
+            imageVariantService.generateAsync(hash);
+        }
+        return stored;
+    }
+
+    // Give back the references taken by storing, for media that ended up attached nowhere
+    public void releaseAll(List<StoredMedia> stored) {
+        for (StoredMedia media : stored) {
+            try {
+                releaseBlob(media.hash(), blobTransaction);
+            } catch (Exception e) {
+                System.err.println("Error releasing blob " + media.hash() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Add a reference to the blob, storing the staged content if the store lacks it. The
+    // reference is taken first, so the row cannot be released while the content is written,
+    // and the write itself holds neither the lock nor a transaction.
+    private void acquireBlob(String hash, long size, Path staged) throws IOException {
+        if (!acquireReference(hash, size)) {
+            return;
+        }
+        try {
+            // Content addressed: uploads of the same new content may both write it, the
+            // result is the same
+            mediaStore.put(hash, staged);
+        } catch (IOException | RuntimeException e) {
+            // Give back the reference taken for content that never arrived
+            try {
+                releaseBlob(hash, blobTransaction);
+            } catch (RuntimeException releaseError) {
+                e.addSuppressed(releaseError);
+            }
+            throw e;
+        }
+    }
+
+    // Count one more reference, inserting the row for new content. Returns whether the content
+    // still has to be written.
+    private boolean acquireReference(String hash, long size) {
+        // Two first uploads of the same content can both try the insert, the loser retries
+        // and finds the winner's row
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ReentrantLock lock = blobLock(hash);
+                lock.lock();
+                try {
+                    return Boolean.TRUE.equals(blobTransaction.execute(status -> {
+                        MediaBlob blob = mediaBlobRepository.findForUpdate(hash).orElse(null);
+                        // A row that survived a lost file is repaired by this upload
+                        boolean write = blob == null || blobMissing(hash);
+                        if (blob == null) {
+                            blob = new MediaBlob(hash, size);
                         }
-                    }
+                        blob.setRefCount(blob.getRefCount() + 1);
+                        // Keeps the orphan sweep away until the new reference has been saved
+                        blob.setLastReferencedAt(LocalDateTime.now());
+                        mediaBlobRepository.saveAndFlush(blob);
+                        return write;
+                    }));
+                } finally {
+                    lock.unlock();
                 }
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == 3) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Drop a reference, the last one removes the row and the file
+    private void releaseBlob(String hash, TransactionTemplate transaction) {
+        ReentrantLock lock = blobLock(hash);
+        lock.lock();
+        try {
+            releaseBlobLocked(hash, transaction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseBlobLocked(String hash, TransactionTemplate transaction) {
+        transaction.executeWithoutResult(status -> {
+            MediaBlob blob = mediaBlobRepository.findForUpdate(hash).orElse(null);
+            if (blob == null) {
+                return;
+            }
+            if (blob.getRefCount() > 1) {
+                blob.setRefCount(blob.getRefCount() - 1);
+                return;
+            }
+            mediaBlobRepository.delete(blob);
+            mediaBlobRepository.flush();
+            try {
+                mediaStore.delete(hash);
+                imageVariantService.deleteVariants(hash);
+                mediaCatalog.removeStorageKey(hash);
+                hotMediaCache.invalidate(hash);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } catch (Exception e) {
-            System.err.println("Error deleting file: " + e.getMessage());
-            e.printStackTrace();
+        });
+    }
+
+    // Remove a blob nothing links to any more, unless it was stored or referenced after the
+    // cutoff; the reference count is not trusted here, uploads whose post was never saved
+    // leave it too high. Returns whether the blob went.
+    public boolean reclaimBlob(String hash, LocalDateTime cutoff) {
+        ReentrantLock lock = blobLock(hash);
+        lock.lock();
+        try {
+            return Boolean.TRUE.equals(blobTransaction.execute(status -> {
+                MediaBlob blob = mediaBlobRepository.findForUpdate(hash).orElse(null);
+                try {
+                    MediaStore.StoredObject stored = mediaStore.stat(hash);
+                    if (stored != null && stored.lastModified() > cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()) {
+                        return false;
+                    }
+                    if (blob != null) {
+                        LocalDateTime lastReferenced = blob.getLastReferencedAt() != null
+                                ? blob.getLastReferencedAt() : blob.getCreatedAt();
+                        if (lastReferenced != null && lastReferenced.isAfter(cutoff)) {
+                            return false;
+                        }
+                        mediaBlobRepository.delete(blob);
+                        mediaBlobRepository.flush();
+                    }
+                    mediaStore.delete(hash);
+                    imageVariantService.deleteVariants(hash);
+                    mediaCatalog.removeStorageKey(hash);
+                    hotMediaCache.invalidate(hash);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove a file from before blobs that nothing links to, with its sidecar and variants
+    public void reclaimEntityFile(String key) throws IOException {
+        // Variants and the hash sidecar go first, the store drops the entity directory with
+        // its last file
+        mediaStore.delete(key + HASH_SUFFIX);
+        imageVariantService.deleteVariants(key);
+        mediaStore.delete(key);
+        forgetETag(key);
+        hotMediaCache.invalidate(key);
+        mediaCatalog.removeStorageKey(key);
+    }
+
+    private boolean blobMissing(String hash) {
+        try {
+            return mediaStore.stat(hash) == null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ReentrantLock blobLock(String hash) {
+        return blobLocks[Integer.parseInt(hash.substring(0, 2), 16) % BLOB_LOCK_STRIPES];
+    }
+
+    private static String extension(String originalFilename) {
+        if (originalFilename == null || originalFilename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.')).toLowerCase();
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private void forgetETag(String key) {
+        synchronized (etagCache) {
+            etagCache.remove(key);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.example.SkillWave.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where media content lives. Objects are named by key: content keys ("<sha256>" and the
+ * variants "<sha256>.thumb" etc.) are spread over two levels of shard directories, entity
+ * keys ("learning-plans/5/<uuid>.jpg", from uploads made before content addressing) keep
+ * their path. Missing objects are reported as NoSuchFileException.
+ */
+public interface MediaStore {
+
+    // Directory holding the content shards
+    String BLOB_DIR = "blobs";
+
+    record StoredObject(long size, long lastModified) {
+    }
+
+    interface ObjectVisitor {
+        void visit(String key, StoredObject object) throws IOException;
+    }
+
+    // Null when there is no such object
+    StoredObject stat(String key) throws IOException;
+
+    // Takes over a file from the staging directory; readers never see a partial object
+    void put(String key, Path source) throws IOException;
+
+    // Same content under a second key, without passing it through the application
+    void copy(String sourceKey, String targetKey) throws IOException;
+
+    // The bytes from offset on; callers read at most length of them
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    // The object as a local file, for zero-copy sends; null when the store is remote
+    Path localPath(String key);
+
+    // Local directory for files on their way into the store
+    Path stagingDir();
+
+    // Every object under a layout directory ("blobs/ab" for one shard, "learning-plans" for
+    // entity keys), streamed in no particular order
+    void walk(String directory, ObjectVisitor visitor) throws IOException;
+
+    // Key of an object at a relative location, the inverse of layoutPath
+    static String keyOf(String layoutPath) {
+        return layoutPath.startsWith(BLOB_DIR + "/")
+                ? layoutPath.substring(layoutPath.lastIndexOf('/') + 1)
+                : layoutPath;
+    }
+
+    // Relative location of a key: "blobs/ab/cd/abcd..." for content, entity keys unchanged.
+    // 65536 shards keep every directory small however much media there is.
+    static String layoutPath(String key) {
+        if (key.indexOf('\\') >= 0) {
+            throw new IllegalArgumentException("Invalid media key: " + key);
+        }
+        if (key.indexOf('/') >= 0) {
+            for (String segment : key.split("/", -1)) {
+                if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                    throw new IllegalArgumentException("Invalid media key: " + key);
+                }
+            }
+            return key;
+        }
+        if (key.length() < 4) {
+            throw new IllegalArgumentException("Content key too short: " + key);
+        }
+        return BLOB_DIR + "/" + key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.SkillWave.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TopicProgressService {
+
+    Map<String, Object> getTopicProgress(Long planId, String userId);
+
+    Map<String, Object> setTopicCompleted(Long planId, String userId, int topicIndex, boolean completed);
+
+    // Moves completed bits to the new topic positions after the plan's topic list changed
+    void remapTopics(Long planId, List<String> oldTopics, List<String> newTopics);
+}
@@ -0,0 +1,109 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission and bandwidth shaping for uploads: at most maxConcurrent uploads run at once,
+ * and each user's upload bytes are drawn from a token bucket refilled at a byte rate. An
+ * upload is refused while its user's bucket is in debt; admitted bodies are paced as they
+ * are read. Refusals are immediate and say when to retry, so an upload storm costs a few
+ * cheap 429s instead of the threads and disk bandwidth that reads need.
+ */
+@Service
+public class UploadAdmissionService {
+
+    // Retry hint when every upload slot is taken; slots free up as uploads finish
+    private static final long BUSY_RETRY_SECONDS = 2;
+
+    public record Decision(boolean admitted, long retryAfterSeconds, String reason) {
+    }
+
+    @Value("${app.upload.admission.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${app.upload.admission.user-rate:2MB}")
+    private DataSize userRate;
+
+    @Value("${app.upload.admission.user-burst:110MB}")
+    private DataSize userBurst;
+
+    private Semaphore slots;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        slots = new Semaphore(maxConcurrent);
+    }
+
+    // Admitted uploads hold a slot until release()
+    public Decision tryAdmit(String user) {
+        if (!slots.tryAcquire()) {
+            rejected.incrementAndGet();
+            return new Decision(false, BUSY_RETRY_SECONDS, "Too many uploads in progress");
+        }
+        long waitNanos = consume(user, 0);
+        if (waitNanos > 0) {
+            slots.release();
+            rejected.incrementAndGet();
+            return new Decision(false, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1),
+                    "Upload rate limit reached");
+        }
+        return new Decision(true, 0, null);
+    }
+
+    // Charges a body that is read without pacing, the user's next upload waits for it; a
+    // length of -1 (unknown) is charged a full burst
+    public void charge(String user, long contentLength) {
+        consume(user, contentLength >= 0 ? contentLength : userBurst.toBytes());
+    }
+
+    // Charges bytes just read and holds the reader until the user's bucket is out of debt
+    public void pace(String user, long bytes) throws InterruptedIOException {
+        long waitNanos = consume(user, bytes);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while pacing an upload");
+            }
+        }
+    }
+
+    private long consume(String user, long bytes) {
+        long now = System.nanoTime();
+        return buckets
+                .computeIfAbsent(user, key -> new TokenBucket(userBurst.toBytes(), userRate.toBytes(), now))
+                .consume(bytes, now);
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    // Buckets that have refilled carry no state, drop them so idle users cost nothing
+    @Scheduled(fixedDelayString = "${app.upload.admission.cleanup-ms:300000}")
+    public void dropIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+        long count = rejected.getAndSet(0);
+        if (count > 0) {
+            System.out.println("Upload admission: rejected " + count + " uploads since the last report");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.event.UserChangedEvent;
+import com.example.SkillWave.model.User;
+import com.example.SkillWave.repository.UserRepository;
+import com.example.SkillWave.util.TinyLfuCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recently read users by id and by email, with their roles. Entries expire after ttl-ms and
+ * the least valuable are evicted past max-entries; a UserChangedEvent drops the user once
+ * the change has committed. Callers get their own detached copy and may modify it freely,
+ * writes still go through UserRepository.
+ */
+@Service
+public class UserCache {
+
+    private record Entry(User user, long expiresAt) {
+    }
+
+    @Value("${app.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.user-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Keyed by id (Long) and by email (String), both pointing at the same entry
+    private TinyLfuCache<Object, Entry> cache;
+
+    // Bumped on every invalidation, so a load racing with a write does not leave a stale entry
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = new TinyLfuCache<>(maxEntries * 2L, maxEntries * 2, entry -> 1);
+    }
+
+    public Optional<User> findById(Long id) {
+        User cached = lookup(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = invalidations.get();
+        return userRepository.findById(id).map(user -> store(user, stamp));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        User cached = lookup(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = invalidations.get();
+        return userRepository.findByEmail(email).map(user -> store(user, stamp));
+    }
+
+    // After commit when published inside a transaction, right away otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId(), event.getEmail());
+    }
+
+    public void invalidate(Long id, String email) {
+        invalidations.incrementAndGet();
+        if (id != null) {
+            Entry entry = cache.get(id);
+            if (entry != null) {
+                cache.remove(entry.user().getEmail());
+            }
+            cache.remove(id);
+        }
+        if (email != null) {
+            cache.remove(email);
+        }
+    }
+
+    private User lookup(Object key) {
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            cache.remove(key);
+            return null;
+        }
+        return copy(entry.user());
+    }
+
+    private User store(User user, long stamp) {
+        Entry entry = new Entry(copy(user), System.currentTimeMillis() + ttlMs);
+        cache.put(user.getId(), entry);
+        cache.put(user.getEmail(), entry);
+        if (invalidations.get() != stamp) {
+            invalidate(user.getId(), user.getEmail());
+        }
+        return copy(user);
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setImageUrl(user.getImageUrl());
+        copy.setEmailVerified(user.getEmailVerified());
+        copy.setPassword(user.getPassword());
+        copy.setRoles(new HashSet<>(user.getRoles()));
+        copy.setProvider(user.getProvider());
+        copy.setProviderId(user.getProviderId());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setProfilePictureUrl(user.getProfilePictureUrl());
+        copy.setLastLogin(user.getLastLogin());
+        copy.setTokenVersion(user.getTokenVersion());
+        copy.setBio(user.getBio());
+        copy.setAuthProvider(user.getAuthProvider());
+        return copy;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.SkillWave.service.impl;
+
+import com.example.SkillWave.event.ProgressChangedEvent;
+import com.example.SkillWave.model.ActivityYear;
+import com.example.SkillWave.model.Progress;
+import com.example.SkillWave.repository.ActivityYearRepository;
+import com.example.SkillWave.repository.ProgressRepository;
+import com.example.SkillWave.service.ActivityService;
+import com.example.SkillWave.util.ActivityCalendar;
+import com.example.SkillWave.util.TinyLfuCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class ActivityServiceImpl implements ActivityService {
+
+    private static final int MAX_HEATMAP_DAYS = 366;
+
+    private static final int USER_LOCK_STRIPES = 64;
+
+    @Value("${app.activity.cache.max-entries:10000}")
+    private int maxCachedCalendars;
+
+    @Autowired
+    private ActivityYearRepository activityYearRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Loaded calendars, one small bitset per user and year; users not seen for a while are
+    // loaded again from their rows
+    private TinyLfuCache<String, ActivityCalendar> calendars;
+
+    // One user's load, update and row write run under the same lock, so two activities of a
+    // user cannot both insert the year row or overwrite each other's days
+    private final ReentrantLock[] userLocks = new ReentrantLock[USER_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < userLocks.length; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // Year rows commit on their own, a conflict must not roll back the caller's transaction
+    private TransactionTemplate yearTransaction;
+
+    @PostConstruct
+    public void init() {
+        calendars = new TinyLfuCache<>(maxCachedCalendars, maxCachedCalendars, calendar -> 1);
+        yearTransaction = new TransactionTemplate(transactionManager);
+        yearTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Every progress write counts as activity for the day
+    @EventListener
+    public void onProgressChanged(ProgressChangedEvent event) {
+        recordActivity(event.getUserId(), LocalDate.now());
+    }
+
+    @Override
+    public void recordActivity(String userId, LocalDate date) {
+        if (userId == null) {
+            return;
+        }
+        ReentrantLock lock = userLock(userId);
+        lock.lock();
+        try {
+            ActivityCalendar calendar = getCalendar(userId);
+            if (!calendar.markActive(date)) {
+                // Already active today, nothing to write
+                return;
+            }
+            saveYear(userId, calendar, date.getYear());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStreaks(String userId) {
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> streaks = new HashMap<>();
+        ReentrantLock lock = userLock(userId);
+        lock.lock();
+        try {
+            ActivityCalendar calendar = getCalendar(userId);
+            streaks.put("currentStreak", calendar.currentStreak(today));
+            streaks.put("longestStreak", calendar.longestStreak());
+            streaks.put("activeToday", calendar.isActive(today));
+            streaks.put("totalActiveDays", calendar.countActiveDays());
+        } finally {
+            lock.unlock();
+        }
+        return streaks;
+    }
+
+    @Override
+    public Map<String, Object> getHeatmap(String userId, int days) {
+        if (days < 1 || days > MAX_HEATMAP_DAYS) {
+            throw new IllegalArgumentException("Heatmap days must be between 1 and " + MAX_HEATMAP_DAYS);
+        }
+        LocalDate today = LocalDate.now();
+
+        boolean[] window;
+        ReentrantLock lock = userLock(userId);
+        lock.lock();
+        try {
+            window = getCalendar(userId).window(today, days);
+        } finally {
+            lock.unlock();
+        }
+        int activeDays = 0;
+        for (boolean active : window) {
+            if (active) {
+                activeDays++;
+            }
+        }
+
+        Map<String, Object> heatmap = new HashMap<>();
+        heatmap.put("startDate", today.minusDays(days - 1L));
+        heatmap.put("endDate", today);
+        heatmap.put("activeDays", activeDays);
+        heatmap.put("days", window);
+        return heatmap;
+    }
+
+    // Called with the user's lock held
+    private ActivityCalendar getCalendar(String userId) {
+        ActivityCalendar calendar = calendars.get(userId);
+        if (calendar == null) {
+            calendar = loadCalendar(userId);
+            calendars.put(userId, calendar);
+        }
+        return calendar;
+    }
+
+    private ActivityCalendar loadCalendar(String userId) {
+        ActivityCalendar calendar = new ActivityCalendar();
+        List<ActivityYear> storedYears = activityYearRepository.findByUserId(userId);
+        if (!storedYears.isEmpty()) {
+            for (ActivityYear activityYear : storedYears) {
+                calendar.putYear(activityYear.getYear(), activityYear.getActiveDays());
+            }
+            return calendar;
+        }
+
+        // First access for this user: seed once from existing progress timestamps
+        Set<Integer> touchedYears = new HashSet<>();
+        for (Progress progress : progressRepository.findByUserId(userId)) {
+            for (LocalDateTime timestamp : new LocalDateTime[] {
+                    progress.getCreatedAt(), progress.getUpdatedAt(), progress.getLastAccessed() }) {
+                if (timestamp != null) {
+                    calendar.markActive(timestamp.toLocalDate());
+                    touchedYears.add(timestamp.getYear());
+                }
+            }
+        }
+        for (Integer year : touchedYears) {
+            saveYear(userId, calendar, year);
+        }
+        return calendar;
+    }
+
+    // Upsert of the year row. Another instance can insert it between the lookup and the
+    // insert; the retry then finds that row and keeps the days of both.
+    private void saveYear(String userId, ActivityCalendar calendar, int year) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                yearTransaction.executeWithoutResult(status -> {
+                    ActivityYear activityYear = activityYearRepository.findByUserIdAndYear(userId, year)
+                            .orElse(null);
+                    if (activityYear == null) {
+                        activityYear = new ActivityYear(userId, year);
+                    } else {
+                        calendar.putYear(year, union(calendar.yearBytes(year), activityYear.getActiveDays()));
+                    }
+                    activityYear.setActiveDays(calendar.yearBytes(year));
+                    activityYear.setUpdatedAt(LocalDateTime.now());
+                    activityYearRepository.saveAndFlush(activityYear);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == 3) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static byte[] union(byte[] days, byte[] storedDays) {
+        if (storedDays != null) {
+            for (int i = 0; i < Math.min(days.length, storedDays.length); i++) {
+                days[i] |= storedDays[i];
+            }
+        }
+        return days;
+    }
+
+    private ReentrantLock userLock(String userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), USER_LOCK_STRIPES)];
+    }
+}
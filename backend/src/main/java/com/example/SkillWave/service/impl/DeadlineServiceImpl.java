@@ -0,0 +1,208 @@
+package com.example.SkillWave.service.impl;
+
+import com.example.SkillWave.event.PlanDeadlineEvent;
+import com.example.SkillWave.payload.LearningPlanSummary;
+import com.example.SkillWave.repository.LearningPlanRepository;
+import com.example.SkillWave.repository.ProgressRepository;
+import com.example.SkillWave.service.DeadlineService;
+import com.example.SkillWave.util.TimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DeadlineServiceImpl implements DeadlineService {
+
+    private static final int MAX_DAYS = 365;
+
+    private record DeadlineTimer(PlanDeadlineEvent.Type type, Long planId, String userId, LocalDateTime deadline) {
+    }
+
+    @Value("${app.deadlines.tick-ms:60000}")
+    private long tickMillis;
+
+    @Value("${app.deadlines.wheel-size:120}")
+    private int wheelSize;
+
+    @Value("${app.deadlines.reminder-lead-hours:24}")
+    private long reminderLeadHours;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Only timers due before loadedUntil live in the wheel, later ones are loaded window by window
+    private TimingWheel<DeadlineTimer> wheel;
+    private long loadedUntil;
+
+    // Pending timers per plan so a changed or deleted plan can cancel them
+    private final Map<Long, List<TimingWheel.Timer<DeadlineTimer>>> timersByPlan = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        long now = System.currentTimeMillis();
+        wheel = new TimingWheel<>(tickMillis, wheelSize, now);
+        loadedUntil = now;
+        loadWindows(now);
+    }
+
+    @Scheduled(fixedRateString = "${app.deadlines.tick-ms:60000}")
+    public void tick() {
+        List<DeadlineTimer> due;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            loadWindows(now);
+            due = wheel.advance(now);
+            for (DeadlineTimer timer : due) {
+                forget(timer);
+            }
+        }
+        for (DeadlineTimer timer : due) {
+            fire(timer);
+        }
+    }
+
+    @Override
+    public synchronized void reschedule(Long planId, String userId, LocalDateTime targetCompletionDate) {
+        cancel(planId);
+        if (wheel == null || targetCompletionDate == null) {
+            return;
+        }
+        // Timers past the loaded horizon are picked up from the index when their window loads
+        long now = System.currentTimeMillis();
+        long deadline = toMillis(targetCompletionDate);
+        long reminder = deadline - Duration.ofHours(reminderLeadHours).toMillis();
+        if (reminder >= now && reminder < loadedUntil) {
+            schedule(reminder, new DeadlineTimer(PlanDeadlineEvent.Type.REMINDER, planId, userId, targetCompletionDate));
+        }
+        if (deadline >= now && deadline < loadedUntil) {
+            schedule(deadline, new DeadlineTimer(PlanDeadlineEvent.Type.OVERDUE, planId, userId, targetCompletionDate));
+        }
+    }
+
+    @Override
+    public synchronized void cancel(Long planId) {
+        List<TimingWheel.Timer<DeadlineTimer>> timers = timersByPlan.remove(planId);
+        if (timers != null) {
+            for (TimingWheel.Timer<DeadlineTimer> timer : timers) {
+                wheel.cancel(timer);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getDeadlines(String userId, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Map<String, Object>> upcoming = new ArrayList<>();
+        for (LearningPlanSummary plan : learningPlanRepository.findUpcomingDeadlines(userId, now, now.plusDays(days))) {
+            Map<String, Object> item = deadlineItem(plan);
+            item.put("hoursRemaining", Duration.between(now, plan.getTargetCompletionDate()).toHours());
+            upcoming.add(item);
+        }
+        List<Map<String, Object>> overdue = new ArrayList<>();
+        for (LearningPlanSummary plan : learningPlanRepository.findOverduePlans(userId, now)) {
+            Map<String, Object> item = deadlineItem(plan);
+            item.put("daysOverdue", Duration.between(plan.getTargetCompletionDate(), now).toDays());
+            overdue.add(item);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("upcoming", upcoming);
+        response.put("overdue", overdue);
+        return response;
+    }
+
+    // Load timers window by window, half a wheel span at a time, so the wheel never holds
+    // more than one span of deadlines
+    private void loadWindows(long now) {
+        long window = wheel.spanMillis() / 2;
+        long lead = Duration.ofHours(reminderLeadHours).toMillis();
+        while (loadedUntil < now + window) {
+            long from = loadedUntil;
+            long to = loadedUntil + window;
+            for (Object[] row : learningPlanRepository.findDeadlinesBetween(toDateTime(from), toDateTime(to))) {
+                LocalDateTime deadline = (LocalDateTime) row[2];
+                schedule(toMillis(deadline), new DeadlineTimer(
+                        PlanDeadlineEvent.Type.OVERDUE, (Long) row[0], (String) row[1], deadline));
+            }
+            // Reminders due in this window belong to deadlines one lead time later
+            for (Object[] row : learningPlanRepository.findDeadlinesBetween(toDateTime(from + lead), toDateTime(to + lead))) {
+                LocalDateTime deadline = (LocalDateTime) row[2];
+                schedule(toMillis(deadline) - lead, new DeadlineTimer(
+                        PlanDeadlineEvent.Type.REMINDER, (Long) row[0], (String) row[1], deadline));
+            }
+            loadedUntil = to;
+        }
+    }
+
+    private void schedule(long dueMillis, DeadlineTimer timer) {
+        timersByPlan.computeIfAbsent(timer.planId(), id -> new ArrayList<>(2))
+                .add(wheel.schedule(dueMillis, timer));
+    }
+
+    private void forget(DeadlineTimer timer) {
+        List<TimingWheel.Timer<DeadlineTimer>> timers = timersByPlan.get(timer.planId());
+        if (timers != null) {
+            timers.removeIf(pending -> pending.task() == timer);
+            if (timers.isEmpty()) {
+                timersByPlan.remove(timer.planId());
+            }
+        }
+    }
+
+    private void fire(DeadlineTimer timer) {
+        if (timer.type() == PlanDeadlineEvent.Type.OVERDUE) {
+            boolean completed = progressRepository
+                    .findByUserIdAndContentIdAndContentType(timer.userId(), timer.planId(), "LEARNING_PLAN")
+                    .map(progress -> Boolean.TRUE.equals(progress.getCompleted()))
+                    .orElse(false);
+            if (completed) {
+                return;
+            }
+        }
+        System.out.println("Learning plan " + timer.planId() + " deadline " + timer.type() + " for user " + timer.userId());
+        eventPublisher.publishEvent(new PlanDeadlineEvent(timer.type(), timer.planId(), timer.userId(), timer.deadline()));
+    }
+
+    private static Map<String, Object> deadlineItem(LearningPlanSummary plan) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("planId", plan.getId());
+        item.put("title", plan.getTitle());
+        item.put("targetCompletionDate", plan.getTargetCompletionDate());
+        return item;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
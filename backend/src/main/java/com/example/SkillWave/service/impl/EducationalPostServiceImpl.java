@@ -4,6 +4,7 @@ import com.example.SkillWave.exception.ResourceNotFoundException;
 import com.example.SkillWave.model.EducationalPost;
 import com.example.SkillWave.repository.EducationalPostRepository;
 import com.example.SkillWave.service.EducationalPostService;
+import com.example.SkillWave.service.MediaDeletionQueue;
 import com.example.SkillWave.service.MediaService;
 import com.example.SkillWave.service.PostCommentService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class EducationalPostServiceImpl implements EducationalPostService {
     @Autowired
     private MediaService mediaService;
     
+    @Autowired
+    private MediaDeletionQueue mediaDeletionQueue;
+    
     @Autowired
     private PostCommentService commentService;
     
@@ -50,6 +54,8 @@ public class EducationalPostServiceImpl implements EducationalPostService {
     
     @Override
     public EducationalPost createPost(EducationalPost post) {
+        // Media is only attached through uploads, which take the blob references
+        post.setMediaUrls(List.of());
         post.setCreatedAt(LocalDateTime.now());
         return postRepository.save(post);
     }
@@ -63,7 +69,7 @@ public class EducationalPostServiceImpl implements EducationalPostService {
         existingPost.setTitle(post.getTitle());
         existingPost.setContent(post.getContent());
         existingPost.setTags(post.getTags());
-        existingPost.setMediaUrls(post.getMediaUrls());
+        // mediaUrls are left alone, see updatePostWithMedia
         existingPost.setDifficultyLevel(post.getDifficultyLevel());
         existingPost.setCategory(post.getCategory());
         existingPost.setEstimatedTime(post.getEstimatedTime());
@@ -79,17 +85,8 @@ public class EducationalPostServiceImpl implements EducationalPostService {
     public void deletePost(Long id) {
         EducationalPost post = getPostById(id);
         
-        // Delete associated media files
-        if (post.getMediaUrls() != null && !post.getMediaUrls().isEmpty()) {
-            for (String mediaUrl : post.getMediaUrls()) {
-                try {
-                    mediaService.deleteFile(mediaUrl);
-                } catch (Exception e) {
-                    // Log error but continue
-                    System.err.println("Error deleting media file: " + e.getMessage());
-                }
-            }
-        }
+        // Media files are deleted in the background once this commits
+        mediaDeletionQueue.enqueue(post.getMediaUrls());
         
         // Delete associated comments
         commentService.deleteAllCommentsForPost(id);
@@ -99,23 +96,18 @@ public class EducationalPostServiceImpl implements EducationalPostService {
     }
     
     @Override
+    @Transactional
     public EducationalPost createPostWithMedia(EducationalPost post, MultipartFile[] mediaFiles) {
-        // First save the post to get an ID
+        // Store the media first, a rejected file fails the request before anything is saved
+        List<MediaService.StoredMedia> media = mediaService.storeFiles(mediaFiles);
+        
+        // Save the post to get an ID for the media URLs
         post.setCreatedAt(LocalDateTime.now());
         EducationalPost savedPost = postRepository.save(post);
         
-        // If there are media files, upload them
-        if (mediaFiles != null && mediaFiles.length > 0) {
-            try {
-                List<String> mediaUrls = mediaService.uploadFiles(mediaFiles, "educational-posts", savedPost.getId());
-                
-                if (mediaUrls != null && !mediaUrls.isEmpty()) {
-                    savedPost.setMediaUrls(mediaUrls);
-                    savedPost = postRepository.save(savedPost);
-                }
-            } catch (Exception e) {
-                System.err.println("Error uploading media files: " + e.getMessage());
-            }
+        if (!media.isEmpty()) {
+            savedPost.setMediaUrls(mediaService.mediaUrls(media, "educational-posts", savedPost.getId()));
+            savedPost = postRepository.save(savedPost);
         }
         
         return savedPost;
@@ -126,6 +118,9 @@ public class EducationalPostServiceImpl implements EducationalPostService {
     public EducationalPost updatePostWithMedia(Long id, EducationalPost post, MultipartFile[] mediaFiles) {
         EducationalPost existingPost = getPostById(id);
         
+        // Store new media before removing any, a rejected file leaves the post untouched
+        List<String> newMediaUrls = mediaService.mediaUrls(mediaService.storeFiles(mediaFiles), "educational-posts", id);
+        
         // Update basic fields
         existingPost.setTitle(post.getTitle());
         existingPost.setContent(post.getContent());
@@ -135,49 +130,42 @@ public class EducationalPostServiceImpl implements EducationalPostService {
         existingPost.setEstimatedTime(post.getEstimatedTime());
         existingPost.setFeatured(post.getFeatured());
         
-        // Handle existing media URLs
+        // Handle existing media URLs: only those the post holds can be kept
         if (post.getMediaUrls() != null) {
-            // Find URLs to delete (URLs in existing but not in update)
-            List<String> urlsToDelete = existingPost.getMediaUrls().stream()
-                    .filter(url -> !post.getMediaUrls().contains(url))
-                    .collect(Collectors.toList());
+            List<String> urlsToDelete = new ArrayList<>();
+            List<String> keptUrls = MediaService.keepHeld(existingPost.getMediaUrls(), post.getMediaUrls(), urlsToDelete);
             
-            // Delete removed media files
-            for (String url : urlsToDelete) {
-                try {
-                    mediaService.deleteFile(url);
-                } catch (Exception e) {
-                    System.err.println("Error deleting media file: " + e.getMessage());
-                }
-            }
+            // Removed media files are deleted in the background once this commits
+            mediaDeletionQueue.enqueue(urlsToDelete);
             
             // Update the media URLs list
-            existingPost.setMediaUrls(post.getMediaUrls());
+            existingPost.setMediaUrls(keptUrls);
         }
         
         // Save the post with updated fields (except new media)
         EducationalPost updatedPost = postRepository.save(existingPost);
         
-        // If there are new media files, upload them
-        if (mediaFiles != null && mediaFiles.length > 0) {
-            try {
-                List<String> newMediaUrls = mediaService.uploadFiles(mediaFiles, "educational-posts", id);
-                
-                if (newMediaUrls != null && !newMediaUrls.isEmpty()) {
-                    // Add new URLs to existing ones
-                    List<String> allMediaUrls = new ArrayList<>(updatedPost.getMediaUrls());
-                    allMediaUrls.addAll(newMediaUrls);
-                    updatedPost.setMediaUrls(allMediaUrls);
-                    updatedPost = postRepository.save(updatedPost);
-                }
-            } catch (Exception e) {
-                System.err.println("Error uploading new media files: " + e.getMessage());
-            }
+        // Add the new media after the kept ones
+        if (!newMediaUrls.isEmpty()) {
+            List<String> allMediaUrls = new ArrayList<>(updatedPost.getMediaUrls());
+            allMediaUrls.addAll(newMediaUrls);
+            updatedPost.setMediaUrls(allMediaUrls);
+            updatedPost = postRepository.save(updatedPost);
         }
         
         return updatedPost;
     }
     
+    @Override
+    @Transactional
+    public EducationalPost attachMedia(Long id, List<String> mediaUrls) {
+        EducationalPost post = getPostById(id);
+        List<String> allMediaUrls = new ArrayList<>(post.getMediaUrls());
+        allMediaUrls.addAll(mediaUrls);
+        post.setMediaUrls(allMediaUrls);
+        return postRepository.save(post);
+    }
+    
     @Override
     public List<EducationalPost> getPostsByUser(String userId) {
         return postRepository.findByUserId(userId);
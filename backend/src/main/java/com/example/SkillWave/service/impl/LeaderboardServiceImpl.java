@@ -0,0 +1,238 @@
+package com.example.SkillWave.service.impl;
+
+import com.example.SkillWave.event.ProgressChangedEvent;
+import com.example.SkillWave.model.LeaderboardScore;
+import com.example.SkillWave.repository.EducationalPostRepository;
+import com.example.SkillWave.repository.LeaderboardScoreRepository;
+import com.example.SkillWave.repository.ProgressRepository;
+import com.example.SkillWave.service.LeaderboardService;
+import com.example.SkillWave.util.RankedSet;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final String GLOBAL = "global";
+    private static final String CATEGORY_PREFIX = "category:";
+    private static final String METRIC_COMPLETED = "COMPLETED";
+    private static final String METRIC_POINTS = "POINTS";
+    private static final int MAX_LIMIT = 100;
+    private static final int SNAPSHOT_BATCH_SIZE = 500;
+    private static final int USER_LOCK_STRIPES = 64;
+
+    @Autowired
+    private LeaderboardScoreRepository scoreRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private EducationalPostRepository postRepository;
+
+    // Board key ("global:POINTS", "category:Cooking:COMPLETED") -> ranked scores
+    private final Map<String, RankedSet> boards = new ConcurrentHashMap<>();
+
+    // Users whose scores changed since the last snapshot
+    private final Set<String> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    // Serializes one user's recounts, so an older recount cannot overwrite a newer one
+    private final ReentrantLock[] userLocks = new ReentrantLock[USER_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < userLocks.length; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBoards() {
+        List<LeaderboardScore> stored = scoreRepository.findAll();
+        if (!stored.isEmpty()) {
+            for (LeaderboardScore score : stored) {
+                board(score.getBoard()).put(score.getUserId(), score.getScore());
+            }
+            return;
+        }
+
+        // No snapshot yet: aggregate the progress table once
+        for (Object[] row : progressRepository.sumScoresByUser()) {
+            String userId = (String) row[0];
+            board(boardKey(GLOBAL, METRIC_POINTS)).put(userId, ((Number) row[1]).longValue());
+            board(boardKey(GLOBAL, METRIC_COMPLETED)).put(userId, ((Number) row[2]).longValue());
+            dirtyUsers.add(userId);
+        }
+        for (Object[] row : progressRepository.sumScoresByUserAndCategory()) {
+            String userId = (String) row[0];
+            String scope = CATEGORY_PREFIX + row[1];
+            board(boardKey(scope, METRIC_POINTS)).put(userId, ((Number) row[2]).longValue());
+            board(boardKey(scope, METRIC_COMPLETED)).put(userId, ((Number) row[3]).longValue());
+        }
+        snapshot();
+    }
+
+    // Scores are set from the user's totals rather than moved by the event's deltas: a delta
+    // is taken against the state its write loaded, which a concurrent write may have changed.
+    // Recounts run after commit and under the user's lock, so the last one sees every write.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressChanged(ProgressChangedEvent event) {
+        String userId = event.getUserId();
+        if (userId == null) {
+            return;
+        }
+        String category = null;
+        if ("EDUCATIONAL_POST".equals(event.getContentType()) && event.getContentId() != null) {
+            category = postRepository.findCategoryById(event.getContentId()).orElse(null);
+        }
+
+        ReentrantLock lock = userLock(userId);
+        lock.lock();
+        try {
+            setScores(GLOBAL, userId, progressRepository.sumScoresForUser(userId));
+            if (category != null) {
+                setScores(CATEGORY_PREFIX + category, userId,
+                        progressRepository.sumScoresForUserInCategory(userId, category));
+            }
+        } finally {
+            lock.unlock();
+        }
+        dirtyUsers.add(userId);
+    }
+
+    // totals: one row of points, completed count; both null when nothing is counted
+    private void setScores(String scope, String userId, List<Object[]> totals) {
+        Object[] row = totals.isEmpty() ? new Object[2] : totals.get(0);
+        board(boardKey(scope, METRIC_POINTS)).put(userId, row[0] != null ? ((Number) row[0]).longValue() : 0);
+        board(boardKey(scope, METRIC_COMPLETED)).put(userId, row[1] != null ? ((Number) row[1]).longValue() : 0);
+    }
+
+    @Override
+    public Map<String, Object> getTopLearners(String metric, String category, int limit) {
+        String key = boardKey(scope(category), parseMetric(metric));
+        RankedSet board = boards.get(key);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        if (board != null) {
+            for (RankedSet.Entry entry : board.top(boundedLimit)) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("userId", entry.member());
+                item.put("score", entry.score());
+                item.put("rank", entry.rank());
+                entries.add(item);
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("metric", metric.toLowerCase());
+        response.put("category", category);
+        response.put("totalRanked", board != null ? board.size() : 0);
+        response.put("entries", entries);
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getUserRank(String userId, String metric, String category) {
+        String key = boardKey(scope(category), parseMetric(metric));
+        RankedSet board = boards.get(key);
+        int rank = board != null ? board.rank(userId) : -1;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("metric", metric.toLowerCase());
+        response.put("category", category);
+        response.put("rank", rank > 0 ? rank : null);
+        response.put("score", rank > 0 ? board.score(userId) : 0L);
+        response.put("totalRanked", board != null ? board.size() : 0);
+        return response;
+    }
+
+    // Write changed scores to the database so the boards survive restarts
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.leaderboard.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+        List<String> batch = new ArrayList<>();
+        Iterator<String> iterator = dirtyUsers.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == SNAPSHOT_BATCH_SIZE) {
+                saveScores(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveScores(batch);
+        }
+    }
+
+    private void saveScores(List<String> userIds) {
+        Map<String, LeaderboardScore> existing = new HashMap<>();
+        for (LeaderboardScore score : scoreRepository.findByUserIdIn(userIds)) {
+            existing.put(score.getBoard() + "|" + score.getUserId(), score);
+        }
+
+        List<LeaderboardScore> toSave = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, RankedSet> board : boards.entrySet()) {
+            for (String userId : userIds) {
+                Long value = board.getValue().score(userId);
+                if (value == null) {
+                    continue;
+                }
+                LeaderboardScore score = existing.get(board.getKey() + "|" + userId);
+                if (score == null) {
+                    score = new LeaderboardScore(board.getKey(), userId);
+                } else if (value.equals(score.getScore())) {
+                    continue;
+                }
+                score.setScore(value);
+                score.setUpdatedAt(now);
+                toSave.add(score);
+            }
+        }
+        scoreRepository.saveAll(toSave);
+    }
+
+    private ReentrantLock userLock(String userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), USER_LOCK_STRIPES)];
+    }
+
+    private RankedSet board(String key) {
+        return boards.computeIfAbsent(key, k -> new RankedSet());
+    }
+
+    private static String boardKey(String scope, String metric) {
+        return scope + ":" + metric;
+    }
+
+    private static String scope(String category) {
+        return category == null || category.isBlank() ? GLOBAL : CATEGORY_PREFIX + category;
+    }
+
+    private static String parseMetric(String metric) {
+        if ("completed".equalsIgnoreCase(metric)) {
+            return METRIC_COMPLETED;
+        }
+        if ("points".equalsIgnoreCase(metric)) {
+            return METRIC_POINTS;
+        }
+        throw new IllegalArgumentException("Unknown leaderboard metric: " + metric);
+    }
+}
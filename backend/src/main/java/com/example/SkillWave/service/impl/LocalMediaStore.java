@@ -0,0 +1,218 @@
+package com.example.SkillWave.service.impl;
+
+import com.example.SkillWave.service.MediaStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Media under the local upload directory, content sharded two levels deep. Several nodes can
+ * share the store by mounting the same directory.
+ */
+@Service
+@ConditionalOnProperty(name = "app.media.store", havingValue = "local", matchIfMissing = true)
+public class LocalMediaStore implements MediaStore {
+
+    private static final String STAGING_DIR = "incoming";
+
+    private final Path root;
+
+    public LocalMediaStore(@Value("${app.upload.dir:./uploads}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(stagingDir());
+        migrateSingleLevelShards();
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? new StoredObject(attributes.size(), attributes.lastModifiedTime().toMillis())
+                    : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Staging on another file system, copy next to the target first
+            copyIntoPlace(source, target);
+            Files.delete(source);
+        }
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey) throws IOException {
+        Path source = resolve(sourceKey);
+        Path target = resolve(targetKey);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, source);
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // No hard links here (or the target exists), fall back to a copy
+            copyIntoPlace(source, target);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        channel.position(offset);
+        return new FilterInputStream(Channels.newInputStream(channel)) {
+            private long remaining = length;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int value = super.read();
+                if (value >= 0) {
+                    remaining--;
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+                if (read > 0) {
+                    remaining -= read;
+                }
+                return read;
+            }
+        };
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = resolve(key);
+        if (Files.deleteIfExists(path) && key.indexOf('/') >= 0) {
+            // Entity directories go with their last file; a failed delete is cheaper than listing
+            try {
+                Files.delete(path.getParent());
+            } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+                // still in use, or already gone
+            }
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public Path stagingDir() {
+        return root.resolve(STAGING_DIR);
+    }
+
+    @Override
+    public void walk(String directory, ObjectVisitor visitor) throws IOException {
+        Path start = root.resolve(directory).normalize();
+        if (!start.startsWith(root) || start.equals(root) || !Files.isDirectory(start)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(start)) {
+            Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue; // deleted while walking
+                }
+                if (attributes.isRegularFile()) {
+                    String relative = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    visitor.visit(MediaStore.keyOf(relative),
+                            new StoredObject(attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(MediaStore.layoutPath(key)).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid media key: " + key);
+        }
+        return path;
+    }
+
+    private static void copyIntoPlace(Path source, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.copy(source, temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Blobs were first stored as blobs/ab/<hash>; move them (and their variants) one level down
+    private void migrateSingleLevelShards() throws IOException {
+        Path blobs = root.resolve(BLOB_DIR);
+        if (!Files.isDirectory(blobs)) {
+            return;
+        }
+        int moved = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(blobs, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, Files::isRegularFile)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        if (name.length() < 4) {
+                            continue;
+                        }
+                        Path target = shard.resolve(name.substring(2, 4)).resolve(name);
+                        Files.createDirectories(target.getParent());
+                        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                        moved++;
+                    }
+                }
+            }
+        }
+        if (moved > 0) {
+            System.out.println("Moved " + moved + " media files into two-level shard directories");
+        }
+    }
+}
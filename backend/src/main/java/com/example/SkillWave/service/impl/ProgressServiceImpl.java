@@ -1,10 +1,12 @@
 package com.example.SkillWave.service.impl;
 
+import com.example.SkillWave.event.ProgressChangedEvent;
 import com.example.SkillWave.exception.ResourceNotFoundException;
 import com.example.SkillWave.model.Progress;
 import com.example.SkillWave.repository.ProgressRepository;
 import com.example.SkillWave.service.ProgressService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,9 @@ public class ProgressServiceImpl implements ProgressService {
     @Autowired
     private ProgressRepository progressRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Override
     public Progress createOrUpdateProgress(Progress progress) {
         if (progress.getId() == null) {
@@ -39,15 +44,21 @@ public class ProgressServiceImpl implements ProgressService {
         
         if (existingProgress.isPresent()) {
             Progress existing = existingProgress.get();
+            int previousPercentage = persistedPercentage(existing);
+            boolean previouslyCompleted = persistedCompleted(existing);
             existing.setProgressPercentage(progress.getProgressPercentage());
             existing.setCompleted(progress.getCompleted());
             existing.setNotes(progress.getNotes());
             existing.setLastAccessed(LocalDateTime.now());
             existing.setUpdatedAt(LocalDateTime.now());
-            return progressRepository.save(existing);
+            Progress saved = progressRepository.save(existing);
+            publishChange(saved, previousPercentage, previouslyCompleted);
+            return saved;
         }
         
-        return progressRepository.save(progress);
+        Progress saved = progressRepository.save(progress);
+        publishChange(saved, 0, false);
+        return saved;
     }
 
     @Override
@@ -134,7 +145,14 @@ public class ProgressServiceImpl implements ProgressService {
 
     @Override
     public void deleteProgress(Long id) {
-        progressRepository.deleteById(id);
+        progressRepository.findById(id).ifPresent(progress -> {
+            int previousPercentage = persistedPercentage(progress);
+            boolean previouslyCompleted = persistedCompleted(progress);
+            progressRepository.delete(progress);
+            eventPublisher.publishEvent(new ProgressChangedEvent(
+                    progress.getUserId(), progress.getContentId(), progress.getContentType(),
+                    previousPercentage, 0, previouslyCompleted, false));
+        });
     }
 
     @Override
@@ -179,15 +197,41 @@ public class ProgressServiceImpl implements ProgressService {
                 .findByUserIdAndContentIdAndContentType(userId, contentId, contentType)
                 .orElseThrow(() -> new ResourceNotFoundException("Progress not found"));
         
+        int previousPercentage = persistedPercentage(progress);
+        boolean previouslyCompleted = persistedCompleted(progress);
         progress.setProgressPercentage(0);
         progress.setCompleted(false);
         progress.setLastAccessed(LocalDateTime.now());
         
-        return progressRepository.save(progress);
+        Progress saved = progressRepository.save(progress);
+        publishChange(saved, previousPercentage, previouslyCompleted);
+        return saved;
     }
 
     @Override
     public Page<Progress> getLearningPlanProgress(String userId, Pageable pageable) {
         return progressRepository.findByUserIdAndContentType(userId, "LEARNING_PLAN", pageable);
     }
-}
\ No newline at end of file
+
+    // Notify listeners (streaks, leaderboards) about the stored change
+    private void publishChange(Progress saved, int previousPercentage, boolean previouslyCompleted) {
+        eventPublisher.publishEvent(new ProgressChangedEvent(
+                saved.getUserId(),
+                saved.getContentId(),
+                saved.getContentType(),
+                previousPercentage,
+                saved.getProgressPercentage() != null ? saved.getProgressPercentage() : 0,
+                previouslyCompleted,
+                Boolean.TRUE.equals(saved.getCompleted())));
+    }
+    
+    // State as stored in the database, even if the entity was already modified by the caller
+    private int persistedPercentage(Progress progress) {
+        Integer persisted = progress.getPersistedPercentage();
+        return persisted != null ? persisted : 0;
+    }
+    
+    private boolean persistedCompleted(Progress progress) {
+        return Boolean.TRUE.equals(progress.getPersistedCompleted());
+    }
+}
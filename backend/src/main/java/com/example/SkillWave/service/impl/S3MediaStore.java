@@ -0,0 +1,350 @@
+package com.example.SkillWave.service.impl;
+
+import com.example.SkillWave.service.MediaStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Media in an S3-compatible bucket (AWS S3, MinIO, Ceph...), so any number of nodes can
+ * serve the same media. Objects use the same sharded layout as the local store under an
+ * optional prefix. Requests are signed with AWS Signature Version 4 and sent with the
+ * JDK HTTP client, path-style; payloads are not hashed for signing (UNSIGNED-PAYLOAD).
+ */
+@Service
+@ConditionalOnProperty(name = "app.media.store", havingValue = "s3")
+public class S3MediaStore implements MediaStore {
+
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final String prefix;
+    private final Path stagingDir;
+
+    public S3MediaStore(@Value("${app.media.s3.endpoint}") String endpoint,
+                        @Value("${app.media.s3.bucket}") String bucket,
+                        @Value("${app.media.s3.region:us-east-1}") String region,
+                        @Value("${app.media.s3.access-key}") String accessKey,
+                        @Value("${app.media.s3.secret-key}") String secretKey,
+                        @Value("${app.media.s3.prefix:}") String prefix,
+                        @Value("${app.upload.dir:./uploads}") String uploadDir) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.prefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+        this.stagingDir = Paths.get(uploadDir, "incoming").toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(stagingDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create staging directory " + stagingDir, e);
+        }
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        HttpResponse<Void> response = send(request("HEAD", key, Map.of())
+                .method("HEAD", HttpRequest.BodyPublishers.noBody()), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        expect(response, "HEAD", key, 200);
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        long lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                .orElse(0L);
+        return new StoredObject(size, lastModified);
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        HttpResponse<String> response = send(request("PUT", key, Map.of())
+                .PUT(HttpRequest.BodyPublishers.ofFile(source)), HttpResponse.BodyHandlers.ofString());
+        expect(response, "PUT", key, 200);
+        Files.deleteIfExists(source);
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey) throws IOException {
+        String copySource = "/" + bucket + "/" + encodePath(objectKey(sourceKey));
+        HttpResponse<String> response = send(request("PUT", targetKey, Map.of("x-amz-copy-source", copySource))
+                .PUT(HttpRequest.BodyPublishers.noBody()), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(sourceKey);
+        }
+        expect(response, "COPY", targetKey, 200);
+        // A copy can fail after the 200 has been sent, the error is then in the body
+        if (response.body().contains("<Error>")) {
+            throw new IOException("S3 copy to " + targetKey + " failed: " + response.body());
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        HttpRequest.Builder request = request("GET", key, Map.of())
+                .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+                .GET();
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 200 || response.statusCode() == 206) {
+            return response.body();
+        }
+        response.body().close();
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("S3 GET " + key + " failed with status " + response.statusCode());
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<String> response = send(request("DELETE", key, Map.of()).DELETE(),
+                HttpResponse.BodyHandlers.ofString());
+        expect(response, "DELETE", key, 204, 200, 404);
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public Path stagingDir() {
+        return stagingDir;
+    }
+
+    // ListObjectsV2 over the directory's prefix, a page of up to 1000 keys at a time
+    @Override
+    public void walk(String directory, ObjectVisitor visitor) throws IOException {
+        String listPrefix = prefix + directory + "/";
+        String continuationToken = null;
+        do {
+            Map<String, String> parameters = new TreeMap<>();
+            parameters.put("list-type", "2");
+            parameters.put("prefix", listPrefix);
+            if (continuationToken != null) {
+                parameters.put("continuation-token", continuationToken);
+            }
+            StringJoiner query = new StringJoiner("&");
+            parameters.forEach((name, value) -> query.add(encode(name) + "=" + encode(value)));
+
+            HttpResponse<InputStream> response = send(signedRequest("GET", endpoint.getRawPath() + "/" + bucket,
+                    query.toString(), Map.of()).GET(), HttpResponse.BodyHandlers.ofInputStream());
+            Element result;
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("S3 LIST " + listPrefix + " failed with status " + response.statusCode());
+                }
+                result = parseXml(body).getDocumentElement();
+            }
+
+            NodeList contents = result.getElementsByTagName("Contents");
+            for (int i = 0; i < contents.getLength(); i++) {
+                Element object = (Element) contents.item(i);
+                String objectKey = childText(object, "Key");
+                visitor.visit(MediaStore.keyOf(objectKey.substring(prefix.length())), new StoredObject(
+                        Long.parseLong(childText(object, "Size")),
+                        Instant.parse(childText(object, "LastModified")).toEpochMilli()));
+            }
+            continuationToken = "true".equals(childText(result, "IsTruncated"))
+                    ? childText(result, "NextContinuationToken") : null;
+        } while (continuationToken != null);
+    }
+
+    private String objectKey(String key) {
+        return prefix + MediaStore.layoutPath(key);
+    }
+
+    // A request for the object with the SigV4 headers set; the caller adds method and body
+    private HttpRequest.Builder request(String method, String key, Map<String, String> extraHeaders) {
+        return signedRequest(method, endpoint.getRawPath() + "/" + bucket + "/" + encodePath(objectKey(key)),
+                "", extraHeaders);
+    }
+
+    // path and query are already encoded, query parameters sorted by name
+    private HttpRequest.Builder signedRequest(String method, String path, String query, Map<String, String> extraHeaders) {
+        URI uri = URI.create(endpoint.getScheme() + "://" + endpoint.getRawAuthority() + path
+                + (query.isEmpty() ? "" : "?" + query));
+        String amzDate = AMZ_DATE.format(Instant.now());
+
+        Map<String, String> signedHeaders = new TreeMap<>();
+        signedHeaders.put("host", hostHeader(uri));
+        signedHeaders.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        signedHeaders.put("x-amz-date", amzDate);
+        signedHeaders.putAll(extraHeaders);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(TIMEOUT)
+                .header("Authorization", authorization(method, path, query, signedHeaders, UNSIGNED_PAYLOAD,
+                        amzDate, region, accessKey, secretKey));
+        signedHeaders.forEach((name, value) -> {
+            if (!name.equals("host")) {
+                builder.header(name, value);
+            }
+        });
+        return builder;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest.Builder request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during S3 request", e);
+        }
+    }
+
+    private static void expect(HttpResponse<?> response, String operation, String key, int... statuses) throws IOException {
+        for (int status : statuses) {
+            if (response.statusCode() == status) {
+                return;
+            }
+        }
+        throw new IOException("S3 " + operation + " " + key + " failed with status " + response.statusCode()
+                + (response.body() instanceof String body ? ": " + body : ""));
+    }
+
+    // What the JDK client sends as Host: the port only when it isn't the scheme's default
+    private static String hostHeader(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equals(uri.getScheme()) && port == 80)
+                || ("https".equals(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    // Authorization header value for AWS Signature Version 4; signedHeaders are lower-case
+    // names in sorted order, canonicalUri is already URI-encoded
+    static String authorization(String method, String canonicalUri, String canonicalQuery,
+                                Map<String, String> signedHeaders, String payloadHash, String amzDate,
+                                String region, String accessKey, String secretKey) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        StringJoiner headerNames = new StringJoiner(";");
+        for (Map.Entry<String, String> header : signedHeaders.entrySet()) {
+            canonicalHeaders.append(header.getKey()).append(':').append(header.getValue().trim()).append('\n');
+            headerNames.add(header.getKey());
+        }
+        String canonicalRequest = method + "\n" + canonicalUri + "\n" + canonicalQuery + "\n"
+                + canonicalHeaders + "\n" + headerNames + "\n" + payloadHash;
+
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + hex(sha256(canonicalRequest));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = hex(hmac(signingKey, stringToSign));
+
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + headerNames + ", Signature=" + signature;
+    }
+
+    // RFC 3986 encoding of each path segment, as S3 expects in the canonical URI
+    static String encodePath(String path) {
+        StringJoiner encoded = new StringJoiner("/");
+        for (String segment : path.split("/", -1)) {
+            encoded.add(encode(segment));
+        }
+        return encoded.toString();
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20").replace("*", "%2A").replace("%7E", "~");
+    }
+
+    private static Document parseXml(InputStream in) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(in);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Unreadable S3 response", e);
+        }
+    }
+
+    // Text of a direct child element, null if there is none
+    private static String childText(Element parent, String name) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element element && name.equals(element.getTagName())) {
+                return element.getTextContent();
+            }
+        }
+        return null;
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static byte[] sha256(String data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.SkillWave.service.impl;
+
+import com.example.SkillWave.exception.LearningPlanNotFoundException;
+import com.example.SkillWave.model.TopicProgress;
+import com.example.SkillWave.repository.LearningPlanRepository;
+import com.example.SkillWave.repository.TopicProgressRepository;
+import com.example.SkillWave.service.ProgressService;
+import com.example.SkillWave.service.TopicProgressService;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class TopicProgressServiceImpl implements TopicProgressService {
+
+    private static final int MAX_TOPICS = 1024; // matches the 128 byte column
+
+    @Autowired
+    private TopicProgressRepository topicProgressRepository;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Override
+    public Map<String, Object> getTopicProgress(Long planId, String userId) {
+        int topicCount = getTopicCount(planId);
+        BitSet completed = topicProgressRepository.findByUserIdAndPlanId(userId, planId)
+                .map(progress -> BitSet.valueOf(progress.getCompletedTopics()))
+                .orElse(new BitSet());
+        return buildResponse(planId, userId, topicCount, completed);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> setTopicCompleted(Long planId, String userId, int topicIndex, boolean completed) {
+        int topicCount = getTopicCount(planId);
+        if (topicIndex < 0 || topicIndex >= Math.min(topicCount, MAX_TOPICS)) {
+            throw new IllegalArgumentException("Topic index " + topicIndex + " is out of range for plan " + planId);
+        }
+
+        TopicProgress topicProgress = topicProgressRepository.findByUserIdAndPlanId(userId, planId)
+                .orElse(new TopicProgress(userId, planId));
+        BitSet bits = BitSet.valueOf(topicProgress.getCompletedTopics());
+        int previousPercentage = percentage(bits, topicCount);
+
+        if (bits.get(topicIndex) != completed) {
+            // Flip a single bit and write the small row back
+            bits.set(topicIndex, completed);
+            topicProgress.setCompletedTopics(bits.toByteArray());
+            topicProgress.setUpdatedAt(LocalDateTime.now());
+            topicProgressRepository.save(topicProgress);
+        }
+
+        // Keep the plan-level progress (summary, streaks, leaderboards) derived from the bits,
+        // the progress row is only written when the rounded percentage moves
+        syncPercentage(userId, planId, previousPercentage, percentage(bits, topicCount));
+
+        return buildResponse(planId, userId, topicCount, bits);
+    }
+
+    @Override
+    @Transactional
+    public void remapTopics(Long planId, List<String> oldTopics, List<String> newTopics) {
+        if (oldTopics.equals(newTopics)) {
+            return;
+        }
+        // Old positions of each topic, duplicates are matched in order
+        Map<String, Deque<Integer>> oldPositions = new HashMap<>();
+        for (int i = 0; i < oldTopics.size(); i++) {
+            oldPositions.computeIfAbsent(oldTopics.get(i), topic -> new ArrayDeque<>()).add(i);
+        }
+        int[] fromIndex = new int[Math.min(newTopics.size(), MAX_TOPICS)];
+        for (int j = 0; j < fromIndex.length; j++) {
+            Deque<Integer> positions = oldPositions.get(newTopics.get(j));
+            fromIndex[j] = positions == null || positions.isEmpty() ? -1 : positions.poll();
+        }
+
+        for (TopicProgress topicProgress : topicProgressRepository.findByPlanId(planId)) {
+            BitSet oldBits = BitSet.valueOf(topicProgress.getCompletedTopics());
+            BitSet newBits = new BitSet();
+            for (int j = 0; j < fromIndex.length; j++) {
+                if (fromIndex[j] >= 0 && oldBits.get(fromIndex[j])) {
+                    newBits.set(j);
+                }
+            }
+            if (!newBits.equals(oldBits)) {
+                topicProgress.setCompletedTopics(newBits.toByteArray());
+                topicProgress.setUpdatedAt(LocalDateTime.now());
+                topicProgressRepository.save(topicProgress);
+            }
+            syncPercentage(topicProgress.getUserId(), planId,
+                    percentage(oldBits, oldTopics.size()), percentage(newBits, newTopics.size()));
+        }
+    }
+
+    private void syncPercentage(String userId, Long planId, int previousPercentage, int newPercentage) {
+        if (newPercentage != previousPercentage) {
+            progressService.updateProgressPercentage(userId, planId, "LEARNING_PLAN", newPercentage);
+        }
+    }
+
+    private int getTopicCount(Long planId) {
+        return learningPlanRepository.countTopicsById(planId)
+                .orElseThrow(() -> new LearningPlanNotFoundException(planId));
+    }
+
+    // Only bits for topics that still exist in the plan count towards completion
+    private static int percentage(BitSet bits, int topicCount) {
+        if (topicCount == 0) {
+            return 0;
+        }
+        int done = bits.get(0, topicCount).cardinality();
+        return done * 100 / topicCount;
+    }
+
+    private static Map<String, Object> buildResponse(Long planId, String userId, int topicCount, BitSet bits) {
+        List<Integer> completedTopics = new ArrayList<>();
+        for (int i = bits.nextSetBit(0); i >= 0 && i < topicCount; i = bits.nextSetBit(i + 1)) {
+            completedTopics.add(i);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("planId", planId);
+        response.put("userId", userId);
+        response.put("totalTopics", topicCount);
+        response.put("completedTopics", completedTopics);
+        response.put("progressPercentage", percentage(bits, topicCount));
+        return response;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.SkillWave.util;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-user set of active days, stored as one 366-bit word array per calendar year.
+ * Bit (dayOfYear - 1) of a year is set when the user was active on that day.
+ */
+public class ActivityCalendar {
+
+    public static final int WORDS_PER_YEAR = 6; // 6 * 64 = 384 bits >= 366 days
+    public static final int BYTES_PER_YEAR = WORDS_PER_YEAR * Long.BYTES;
+
+    private final NavigableMap<Integer, long[]> years = new TreeMap<>();
+
+    // Set the bit for the given day, returns true if the day was not active before
+    public boolean markActive(LocalDate date) {
+        long[] words = years.computeIfAbsent(date.getYear(), y -> new long[WORDS_PER_YEAR]);
+        int bit = date.getDayOfYear() - 1;
+        long mask = 1L << bit;
+        boolean wasSet = (words[bit >>> 6] & mask) != 0;
+        words[bit >>> 6] |= mask;
+        return !wasSet;
+    }
+
+    public boolean isActive(LocalDate date) {
+        long[] words = years.get(date.getYear());
+        if (words == null) {
+            return false;
+        }
+        int bit = date.getDayOfYear() - 1;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    // Consecutive active days ending today, or ending yesterday if today has no activity yet
+    public int currentStreak(LocalDate today) {
+        LocalDate end = isActive(today) ? today : today.minusDays(1);
+        int streak = 0;
+        int year = end.getYear();
+        int bit = end.getDayOfYear() - 1;
+
+        while (true) {
+            long[] words = years.get(year);
+            if (words == null) {
+                return streak;
+            }
+            for (int w = bit >>> 6; w >= 0; w--) {
+                int top = (w == bit >>> 6) ? (bit & 63) : 63;
+                // Move bit 'top' to the sign position and count leading ones downwards
+                long shifted = words[w] << (63 - top);
+                int ones = Long.numberOfLeadingZeros(~shifted);
+                streak += Math.min(ones, top + 1);
+                if (ones < top + 1) {
+                    return streak;
+                }
+            }
+            // Whole year prefix was active, continue with the last day of the previous year
+            year--;
+            bit = LocalDate.of(year, 12, 31).getDayOfYear() - 1;
+        }
+    }
+
+    // Longest run of consecutive active days across all recorded years
+    public int longestStreak() {
+        int longest = 0;
+        int run = 0;
+        Integer previousYear = null;
+
+        for (Map.Entry<Integer, long[]> entry : years.entrySet()) {
+            int year = entry.getKey();
+            if (previousYear != null && year != previousYear + 1) {
+                // A year without activity in between ends the run
+                longest = Math.max(longest, run);
+                run = 0;
+            }
+            previousYear = year;
+
+            long[] words = entry.getValue();
+            int daysInYear = LocalDate.of(year, 12, 31).getDayOfYear();
+            for (int w = 0; w < WORDS_PER_YEAR && w * 64 < daysInYear; w++) {
+                int valid = Math.min(64, daysInYear - w * 64);
+                long word = words[w];
+                if (valid == 64 && word == -1L) {
+                    run += 64;
+                    continue;
+                }
+                int pos = 0;
+                while (pos < valid) {
+                    long shifted = word >>> pos;
+                    if ((shifted & 1L) != 0) {
+                        int ones = Math.min(Long.numberOfTrailingZeros(~shifted), valid - pos);
+                        run += ones;
+                        pos += ones;
+                    } else {
+                        longest = Math.max(longest, run);
+                        run = 0;
+                        int zeros = shifted == 0 ? valid - pos : Long.numberOfTrailingZeros(shifted);
+                        pos += Math.min(zeros, valid - pos);
+                    }
+                }
+            }
+        }
+        return Math.max(longest, run);
+    }
+
+    // Activity flags for the given number of days ending at 'end' (oldest first)
+    public boolean[] window(LocalDate end, int days) {
+        boolean[] result = new boolean[days];
+        LocalDate day = end.minusDays(days - 1L);
+        for (int i = 0; i < days; i++, day = day.plusDays(1)) {
+            result[i] = isActive(day);
+        }
+        return result;
+    }
+
+    public int countActiveDays() {
+        int count = 0;
+        for (long[] words : years.values()) {
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    public void putYear(int year, byte[] bytes) {
+        years.put(year, fromBytes(bytes));
+    }
+
+    public byte[] yearBytes(int year) {
+        long[] words = years.get(year);
+        return toBytes(words != null ? words : new long[WORDS_PER_YEAR]);
+    }
+
+    private static byte[] toBytes(long[] words) {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES_PER_YEAR);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    private static long[] fromBytes(byte[] bytes) {
+        long[] words = new long[WORDS_PER_YEAR];
+        if (bytes != null) {
+            ByteBuffer.wrap(bytes).asLongBuffer().get(words, 0, Math.min(WORDS_PER_YEAR, bytes.length / Long.BYTES));
+        }
+        return words;
+    }
+}
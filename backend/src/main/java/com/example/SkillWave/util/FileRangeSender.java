@@ -0,0 +1,270 @@
+package com.example.SkillWave.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a file, or the byte ranges asked for in a Range header, straight to the servlet
+ * response. Single regions are handed to Tomcat's sendfile support when the connector
+ * offers it (the kernel copies file pages to the socket after the handler returns);
+ * otherwise, and for multipart/byteranges responses, regions are streamed with
+ * FileChannel.transferTo. The file content never passes through a file-sized buffer.
+ * Content already held in memory is written from its buffer the same way, content in remote
+ * storage is copied from a stream opened per region.
+ */
+public final class FileRangeSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this, a plain write is cheaper than handing the file to the poller (Tomcat's own default)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private record Region(long start, long length) {
+        long end() {
+            return start + length - 1;
+        }
+    }
+
+    // Opens the content from a position on, for content that is neither a local file nor in memory
+    public interface RangeSource {
+        InputStream open(long start, long length) throws IOException;
+    }
+
+    // Where the response bytes come from
+    private interface Body {
+        long length();
+
+        void write(Region region, OutputStream out) throws IOException;
+    }
+
+    private record FileBody(Path file, long length) implements Body {
+        @Override
+        public void write(Region region, OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                transfer(channel, region, out);
+            }
+        }
+    }
+
+    private record BufferBody(ByteBuffer content) implements Body {
+        @Override
+        public long length() {
+            return content.limit();
+        }
+
+        @Override
+        public void write(Region region, OutputStream out) throws IOException {
+            ByteBuffer slice = content.slice((int) region.start(), (int) region.length());
+            WritableByteChannel target = Channels.newChannel(out);
+            while (slice.hasRemaining()) {
+                target.write(slice);
+            }
+        }
+    }
+
+    private record StreamBody(RangeSource source, long length) implements Body {
+        @Override
+        public void write(Region region, OutputStream out) throws IOException {
+            try (InputStream in = source.open(region.start(), region.length())) {
+                byte[] buffer = new byte[64 * 1024];
+                long remaining = region.length();
+                while (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of content at " + (region.end() + 1 - remaining));
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        }
+    }
+
+    private FileRangeSender() {
+    }
+
+    // Send the whole file (200) or the requested ranges (206, 416 if they cannot be satisfied).
+    // The etag and lastModified validators decide whether an If-Range request gets its ranges.
+    public static void send(Path file, long fileLength, String contentType, String etag, long lastModified,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(new FileBody(file, fileLength), contentType, etag, lastModified, request, response);
+    }
+
+    // Same as above for content held in memory, the buffer's position and limit are left as they are
+    public static void send(ByteBuffer content, String contentType, String etag, long lastModified,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(new BufferBody(content), contentType, etag, lastModified, request, response);
+    }
+
+    // Same again for content read through a stream, e.g. from object storage
+    public static void send(RangeSource source, long length, String contentType, String etag, long lastModified,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(new StreamBody(source, length), contentType, etag, lastModified, request, response);
+    }
+
+    private static void send(Body body, String contentType, String etag, long lastModified,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long fileLength = body.length();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && !ifRangeMatches(request, etag, lastModified)) {
+            rangeHeader = null;
+        }
+
+        List<Region> regions;
+        try {
+            regions = requestedRegions(rangeHeader, fileLength);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
+            return;
+        }
+        boolean head = "HEAD".equals(request.getMethod());
+
+        if (regions.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            sendRegion(body, new Region(0, fileLength), head, request, response);
+        } else if (regions.size() == 1) {
+            Region region = regions.get(0);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(region, fileLength));
+            sendRegion(body, region, head, request, response);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            sendMultipart(body, regions, contentType, head, response);
+        }
+    }
+
+    // If-Range needs a strong match: the exact ETag, or the exact modification date
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag != null && !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Empty when there is no Range header; throws IllegalArgumentException for unusable ranges
+    private static List<Region> requestedRegions(String rangeHeader, long fileLength) {
+        if (rangeHeader == null || rangeHeader.isEmpty()) {
+            return List.of();
+        }
+        List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+        List<Region> regions = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(fileLength);
+            long end = range.getRangeEnd(fileLength);
+            // Ranges starting past the end are skipped, the request fails only if none are left
+            if (start >= fileLength || start > end) {
+                continue;
+            }
+            regions.add(new Region(start, end - start + 1));
+            total += end - start + 1;
+        }
+        if (regions.isEmpty()) {
+            throw new IllegalArgumentException("No satisfiable range in " + rangeHeader);
+        }
+        // Same guard as Spring's resource handling: overlapping ranges must not amplify the response
+        if (regions.size() > 1 && total > fileLength) {
+            throw new IllegalArgumentException("The sum of all ranges is greater than the file length");
+        }
+        return regions;
+    }
+
+    private static void sendRegion(Body body, Region region, boolean head,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(region.length());
+        if (head || region.length() == 0) {
+            return;
+        }
+        if (body instanceof FileBody fileBody && region.length() >= SENDFILE_MIN_SIZE
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, fileBody.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, region.start());
+            request.setAttribute(SENDFILE_END, region.start() + region.length());
+            return;
+        }
+        body.write(region, response.getOutputStream());
+    }
+
+    private static void sendMultipart(Body body, List<Region> regions, String contentType,
+                                      boolean head, HttpServletResponse response) throws IOException {
+        long fileLength = body.length();
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(regions.size());
+        long contentLength = 0;
+        for (Region region : regions) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(region, fileLength) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + region.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        for (int i = 0; i < regions.size(); i++) {
+            out.write(partHeaders.get(i));
+            body.write(regions.get(i), out);
+        }
+        out.write(closing);
+    }
+
+    private static void transfer(FileChannel channel, Region region, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = region.start();
+        long remaining = region.length();
+        while (remaining > 0) {
+            long written = channel.transferTo(position, remaining, target);
+            if (written <= 0) {
+                // File shrank underneath us, the declared length can no longer be honoured
+                throw new IOException("Unexpected end of file at " + position);
+            }
+            position += written;
+            remaining -= written;
+        }
+    }
+
+    private static String contentRange(Region region, long fileLength) {
+        return "bytes " + region.start() + "-" + region.end() + "/" + fileLength;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.SkillWave.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * In-place list updates for ordered element collections. Rewriting the existing list
+ * position by position (instead of swapping in a new one) lets Hibernate write only the
+ * changed index rows, the new tail and the removed tail.
+ */
+public final class ListMerge {
+
+    private ListMerge() {
+    }
+
+    // Make target equal to source, touching only the positions that differ
+    public static <T> void mergeInto(List<T> target, List<? extends T> source) {
+        if (target == source) {
+            return;
+        }
+        List<? extends T> values = source != null ? new ArrayList<>(source) : List.of();
+
+        int common = Math.min(target.size(), values.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(target.get(i), values.get(i))) {
+                target.set(i, values.get(i));
+            }
+        }
+        while (target.size() > values.size()) {
+            target.remove(target.size() - 1);
+        }
+        for (int i = target.size(); i < values.size(); i++) {
+            target.add(values.get(i));
+        }
+    }
+}
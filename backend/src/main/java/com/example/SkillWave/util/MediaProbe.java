@@ -0,0 +1,235 @@
+package com.example.SkillWave.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Reads what the media catalog keeps about a file from its first bytes: the MIME type from
+ * the magic number (the extension only as a fallback), image dimensions from the header
+ * without decoding pixels, and the duration of MP4 and WebM video from the movie header.
+ * Anything that cannot be read is left null.
+ */
+public final class MediaProbe {
+
+    public record Info(String contentType, Integer width, Integer height, Long durationMs) {
+    }
+
+    private static final int SNIFF_LENGTH = 12;
+
+    // Containers nest at most a few levels before the header we want
+    private static final int MAX_DEPTH = 4;
+
+    // EBML element ids of the WebM path to the duration
+    private static final long EBML_SEGMENT = 0x18538067L;
+    private static final long EBML_INFO = 0x1549A966L;
+    private static final long EBML_TIMECODE_SCALE = 0x2AD7B1L;
+    private static final long EBML_DURATION = 0x4489L;
+    private static final long EBML_CLUSTER = 0x1F43B675L;
+
+    private MediaProbe() {
+    }
+
+    public static Info probe(InputStream input, String filename) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(input, 64 * 1024);
+        in.mark(SNIFF_LENGTH);
+        byte[] magic = in.readNBytes(SNIFF_LENGTH);
+        in.reset();
+
+        String contentType = sniff(magic);
+        if (contentType == null) {
+            contentType = contentTypeFor(filename);
+        }
+        try {
+            if (contentType.startsWith("image/")) {
+                return imageInfo(in, contentType);
+            }
+            if (contentType.equals("video/mp4") || contentType.equals("video/quicktime")) {
+                return new Info(contentType, null, null, mp4Duration(new DataInputStream(in), Long.MAX_VALUE, 0));
+            }
+            if (contentType.equals("video/webm")) {
+                return new Info(contentType, null, null, webmDuration(in));
+            }
+        } catch (EOFException | RuntimeException e) {
+            // truncated or malformed header, keep what the magic number told us
+        }
+        return new Info(contentType, null, null, null);
+    }
+
+    // MIME type from the file name alone, for files that could not be sniffed
+    public static String contentTypeFor(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "jpg", "jpeg" -> "image/jpeg";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            case "mp4", "m4v" -> "video/mp4";
+            case "mov" -> "video/quicktime";
+            case "webm" -> "video/webm";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static String sniff(byte[] magic) {
+        if (startsWith(magic, 0, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(magic, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(magic, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(magic, 0, 'R', 'I', 'F', 'F') && startsWith(magic, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (startsWith(magic, 4, 'f', 't', 'y', 'p')) {
+            return startsWith(magic, 8, 'q', 't', ' ', ' ') ? "video/quicktime" : "video/mp4";
+        }
+        if (startsWith(magic, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+            return "video/webm";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Info imageInfo(InputStream in, String contentType) throws IOException {
+        try (ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = image == null ? null : ImageIO.getImageReaders(image);
+            if (readers == null || !readers.hasNext()) {
+                return new Info(contentType, null, null, null);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                return new Info(contentType, reader.getWidth(0), reader.getHeight(0), null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Walks the boxes of an ISO media file down to moov/mvhd, skipping over media data
+    private static Long mp4Duration(DataInputStream in, long limit, int depth) throws IOException {
+        long consumed = 0;
+        while (consumed + 8 <= limit) {
+            long size = Integer.toUnsignedLong(in.readInt());
+            String type = new String(in.readNBytes(4), StandardCharsets.US_ASCII);
+            long header = 8;
+            if (size == 1) {
+                size = in.readLong();
+                header = 16;
+            } else if (size == 0) {
+                size = limit - consumed; // runs to the end of its container
+            }
+            if (size < header) {
+                return null;
+            }
+            if (type.equals("moov") && depth < MAX_DEPTH) {
+                return mp4Duration(in, size - header, depth + 1);
+            }
+            if (type.equals("mvhd")) {
+                int version = in.readUnsignedByte();
+                in.skipNBytes(3 + (version == 1 ? 16 : 8)); // flags, creation and modification time
+                long timescale = Integer.toUnsignedLong(in.readInt());
+                long duration = version == 1 ? in.readLong() : Integer.toUnsignedLong(in.readInt());
+                return timescale == 0 ? null : duration * 1000 / timescale;
+            }
+            in.skipNBytes(size - header);
+            consumed += size;
+        }
+        return null;
+    }
+
+    // Segment > Info > Duration, a float in TimecodeScale units (nanoseconds per tick)
+    private static Long webmDuration(InputStream in) throws IOException {
+        long timecodeScale = 1_000_000;
+        Double duration = null;
+        int depth = 0;
+        long infoEnd = -1;
+        long position = 0;
+        while (depth <= MAX_DEPTH) {
+            long[] id = readVint(in, false);
+            long[] size = readVint(in, true);
+            position += id[1] + size[1];
+            long length = size[0];
+            if (id[0] == EBML_SEGMENT) {
+                depth++;
+                continue; // step inside, often of unknown size
+            }
+            if (id[0] == EBML_INFO) {
+                infoEnd = position + length;
+                depth++;
+                continue;
+            }
+            if (id[0] == EBML_CLUSTER || length < 0) {
+                break; // media data starts, Info always comes first
+            }
+            if (id[0] == EBML_TIMECODE_SCALE && infoEnd >= 0) {
+                timecodeScale = toLong(in.readNBytes((int) length));
+            } else if (id[0] == EBML_DURATION && infoEnd >= 0) {
+                long bits = toLong(in.readNBytes((int) length));
+                duration = length == 4 ? (double) Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+            } else {
+                in.skipNBytes(length);
+            }
+            position += length;
+            if (infoEnd >= 0 && position >= infoEnd) {
+                break;
+            }
+        }
+        return duration == null ? null : (long) (duration * timecodeScale / 1_000_000);
+    }
+
+    // EBML variable length integer: {value, bytes read}; a size of all ones is unknown, -1
+    private static long[] readVint(InputStream in, boolean stripMarker) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            throw new EOFException();
+        }
+        int length = Integer.numberOfLeadingZeros(first) - 23;
+        if (length < 1 || length > 8) {
+            throw new IllegalStateException("Invalid EBML integer");
+        }
+        long value = stripMarker ? first & (0xFF >> length) : first;
+        boolean allOnes = value == (0xFF >> length);
+        byte[] rest = in.readNBytes(length - 1);
+        if (rest.length != length - 1) {
+            throw new EOFException();
+        }
+        for (byte b : rest) {
+            value = (value << 8) | (b & 0xFF);
+            allOnes &= (b & 0xFF) == 0xFF;
+        }
+        return new long[] {stripMarker && allOnes ? -1 : value, length};
+    }
+
+    private static long toLong(byte[] bytes) {
+        long value = 0;
+        for (byte b : bytes) {
+            value = (value << 8) | (b & 0xFF);
+        }
+        return value;
+    }
+}
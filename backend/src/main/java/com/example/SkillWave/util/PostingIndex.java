@@ -0,0 +1,271 @@
+package com.example.SkillWave.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from a key to the sorted ids of the documents carrying it. Posting
+ * lists are sorted long arrays, so OR is a k-way merge and AND walks the smallest list
+ * and binary searches the others. Thread safe through a read/write lock.
+ */
+public class PostingIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    public record KeyCount(String key, int count) {
+    }
+
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final Map<Long, Set<String>> keysByDoc = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Replace the keys of a document, only the changed postings are touched
+    public void put(long docId, Collection<String> keys) {
+        Set<String> updated = new LinkedHashSet<>();
+        if (keys != null) {
+            for (String key : keys) {
+                if (key != null) {
+                    updated.add(key);
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = keysByDoc.getOrDefault(docId, Set.of());
+            for (String key : previous) {
+                if (!updated.contains(key)) {
+                    removePosting(key, docId);
+                }
+            }
+            for (String key : updated) {
+                if (!previous.contains(key)) {
+                    addPosting(key, docId);
+                }
+            }
+            if (updated.isEmpty()) {
+                keysByDoc.remove(docId);
+            } else {
+                keysByDoc.put(docId, updated);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replace the whole index, building each posting list once instead of insert by insert
+    public void load(Map<Long, ? extends Collection<String>> docs) {
+        Map<String, long[]> built = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        Map<Long, Set<String>> keys = new HashMap<>();
+        for (Map.Entry<Long, ? extends Collection<String>> doc : docs.entrySet()) {
+            Set<String> docKeys = new LinkedHashSet<>();
+            for (String key : doc.getValue()) {
+                if (key == null || !docKeys.add(key)) {
+                    continue;
+                }
+                long[] list = built.getOrDefault(key, EMPTY);
+                int size = sizes.getOrDefault(key, 0);
+                if (size == list.length) {
+                    list = Arrays.copyOf(list, Math.max(4, size * 2));
+                    built.put(key, list);
+                }
+                list[size] = doc.getKey();
+                sizes.put(key, size + 1);
+            }
+            if (!docKeys.isEmpty()) {
+                keys.put(doc.getKey(), docKeys);
+            }
+        }
+        for (Map.Entry<String, long[]> entry : built.entrySet()) {
+            long[] list = Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey()));
+            Arrays.sort(list);
+            entry.setValue(list);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postings.putAll(built);
+            keysByDoc.clear();
+            keysByDoc.putAll(keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        put(docId, null);
+    }
+
+    // Ids of documents with the key, ascending
+    public long[] get(String key) {
+        lock.readLock().lock();
+        try {
+            long[] list = postings.get(key);
+            return list != null ? list.clone() : EMPTY;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(String key) {
+        lock.readLock().lock();
+        try {
+            long[] list = postings.get(key);
+            return list != null ? list.length : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of documents with at least one of the keys, ascending
+    public long[] any(Collection<String> keys) {
+        lock.readLock().lock();
+        try {
+            List<long[]> lists = new ArrayList<>();
+            int total = 0;
+            for (String key : new LinkedHashSet<>(keys)) {
+                long[] list = postings.get(key);
+                if (list != null) {
+                    lists.add(list);
+                    total += list.length;
+                }
+            }
+            if (lists.isEmpty()) {
+                return EMPTY;
+            }
+            if (lists.size() == 1) {
+                return lists.get(0).clone();
+            }
+
+            long[] result = new long[total];
+            int[] positions = new int[lists.size()];
+            int size = 0;
+            while (true) {
+                // Smallest head across the lists, emitted once even if several lists share it
+                long min = Long.MAX_VALUE;
+                boolean found = false;
+                for (int i = 0; i < lists.size(); i++) {
+                    if (positions[i] < lists.get(i).length && lists.get(i)[positions[i]] <= min) {
+                        min = lists.get(i)[positions[i]];
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    break;
+                }
+                result[size++] = min;
+                for (int i = 0; i < lists.size(); i++) {
+                    if (positions[i] < lists.get(i).length && lists.get(i)[positions[i]] == min) {
+                        positions[i]++;
+                    }
+                }
+            }
+            return Arrays.copyOf(result, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of documents with every one of the keys, ascending
+    public long[] all(Collection<String> keys) {
+        lock.readLock().lock();
+        try {
+            List<long[]> lists = new ArrayList<>();
+            for (String key : new LinkedHashSet<>(keys)) {
+                long[] list = postings.get(key);
+                if (list == null) {
+                    return EMPTY;
+                }
+                lists.add(list);
+            }
+            if (lists.isEmpty()) {
+                return EMPTY;
+            }
+            lists.sort(Comparator.comparingInt(list -> list.length));
+
+            long[] smallest = lists.get(0);
+            long[] result = new long[smallest.length];
+            int size = 0;
+            for (long docId : smallest) {
+                boolean inAll = true;
+                for (int i = 1; i < lists.size() && inAll; i++) {
+                    inAll = Arrays.binarySearch(lists.get(i), docId) >= 0;
+                }
+                if (inAll) {
+                    result[size++] = docId;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keys with the longest posting lists, ties by key
+    public List<KeyCount> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<KeyCount> counts = new ArrayList<>(postings.size());
+            for (Map.Entry<String, long[]> entry : postings.entrySet()) {
+                counts.add(new KeyCount(entry.getKey(), entry.getValue().length));
+            }
+            counts.sort(Comparator.comparingInt(KeyCount::count).reversed().thenComparing(KeyCount::key));
+            return counts.size() > limit ? new ArrayList<>(counts.subList(0, limit)) : counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keysByDoc.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addPosting(String key, long docId) {
+        long[] list = postings.getOrDefault(key, EMPTY);
+        int pos = Arrays.binarySearch(list, docId);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        long[] grown = new long[list.length + 1];
+        System.arraycopy(list, 0, grown, 0, insertAt);
+        grown[insertAt] = docId;
+        System.arraycopy(list, insertAt, grown, insertAt + 1, list.length - insertAt);
+        postings.put(key, grown);
+    }
+
+    private void removePosting(String key, long docId) {
+        long[] list = postings.get(key);
+        if (list == null) {
+            return;
+        }
+        int pos = Arrays.binarySearch(list, docId);
+        if (pos < 0) {
+            return;
+        }
+        if (list.length == 1) {
+            postings.remove(key);
+            return;
+        }
+        long[] shrunk = new long[list.length - 1];
+        System.arraycopy(list, 0, shrunk, 0, pos);
+        System.arraycopy(list, pos + 1, shrunk, pos, list.length - pos - 1);
+        postings.put(key, shrunk);
+    }
+}
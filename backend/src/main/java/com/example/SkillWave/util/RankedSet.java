@@ -0,0 +1,229 @@
+package com.example.SkillWave.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Members ordered by score (highest first, ties by member id), backed by an indexable
+ * skip list plus a member to score map. Updates, rank lookups and top-N reads are
+ * O(log n) (+ N for top-N). Thread safe through a read/write lock.
+ */
+public class RankedSet {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    public record Entry(String member, long score, int rank) {
+    }
+
+    private static final class Node {
+        final String member;
+        final long score;
+        final Node[] next;
+        final int[] span;
+
+        Node(String member, long score, int levels) {
+            this.member = member;
+            this.score = score;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private final Map<String, Long> scores = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int level = 1;
+    private int size;
+
+    // Set the score of a member, inserting it if needed
+    public void put(String member, long score) {
+        lock.writeLock().lock();
+        try {
+            Long current = scores.get(member);
+            if (current != null) {
+                if (current == score) {
+                    return;
+                }
+                delete(member, current);
+            }
+            insert(member, score);
+            scores.put(member, score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add a delta to the member's score and return the new score
+    public long increment(String member, long delta) {
+        lock.writeLock().lock();
+        try {
+            Long current = scores.get(member);
+            long updated = (current != null ? current : 0L) + delta;
+            if (current != null) {
+                delete(member, current);
+            }
+            insert(member, updated);
+            scores.put(member, updated);
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String member) {
+        lock.writeLock().lock();
+        try {
+            Long current = scores.remove(member);
+            if (current != null) {
+                delete(member, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Long score(String member) {
+        lock.readLock().lock();
+        try {
+            return scores.get(member);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 1-based rank of the member, or -1 if it is not ranked
+    public int rank(String member) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(member);
+            if (score == null) {
+                return -1;
+            }
+            int rank = 0;
+            Node x = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null && compare(x.next[i], score, member) <= 0) {
+                    rank += x.span[i];
+                    x = x.next[i];
+                }
+                if (x != head && x.member.equals(member)) {
+                    return rank;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(Math.min(limit, size));
+            Node x = head.next[0];
+            int rank = 1;
+            while (x != null && entries.size() < limit) {
+                entries.add(new Entry(x.member, x.score, rank++));
+                x = x.next[0];
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Higher scores first, ties broken by member so the order is total
+    private static int compare(Node node, long score, String member) {
+        if (node.score != score) {
+            return node.score > score ? -1 : 1;
+        }
+        return node.member.compareTo(member);
+    }
+
+    private void insert(String member, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, member) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        x = new Node(member, score, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            x.next[i] = update[i].next[i];
+            update[i].next[i] = x;
+            x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(String member, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, member) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || x.score != score || !x.member.equals(member)) {
+            return;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private static int randomLevel() {
+        int newLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (newLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.SkillWave.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a ring of slots, one per tick, each holding a doubly linked list of
+ * timers. Scheduling and cancelling are O(1); advancing only visits the slots of the ticks
+ * that passed. Timers further away than one rotation are still correct (they stay in their
+ * slot until due), but callers are expected to keep the wheel to about one span of timers
+ * and load later ones as time moves on. Thread safe through the wheel's monitor.
+ */
+public class TimingWheel<T> {
+
+    public static final class Timer<T> {
+        private final long deadline;
+        private final T task;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int slot = -1;
+
+        private Timer(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public T task() {
+            return task;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timer<T>[] heads;
+    private long processedTick; // every timer due at or before this tick has fired
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.heads = new Timer[wheelSize];
+        this.processedTick = startMillis / tickMillis - 1;
+    }
+
+    // Time covered by one rotation of the wheel
+    public long spanMillis() {
+        return tickMillis * heads.length;
+    }
+
+    // Timers already due land in the next slot to be processed
+    public synchronized Timer<T> schedule(long deadlineMillis, T task) {
+        Timer<T> timer = new Timer<>(deadlineMillis, task);
+        long tick = Math.max(deadlineMillis / tickMillis, processedTick + 1);
+        int slot = (int) (tick % heads.length);
+        timer.slot = slot;
+        timer.next = heads[slot];
+        if (heads[slot] != null) {
+            heads[slot].prev = timer;
+        }
+        heads[slot] = timer;
+        size++;
+        return timer;
+    }
+
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer.slot < 0) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    // Remove and return the tasks of every timer due at or before now
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        long ticks = Math.min(nowTick - processedTick, heads.length);
+        for (long i = 1; i <= ticks; i++) {
+            int slot = (int) ((processedTick + i) % heads.length);
+            Timer<T> timer = heads[slot];
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                if (timer.deadline <= nowMillis) {
+                    unlink(timer);
+                    expired.add(timer.task);
+                }
+                timer = next;
+            }
+        }
+        // The current tick is revisited next time, its later timers are not due yet
+        processedTick = Math.max(processedTick, nowTick - 1);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            heads[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.slot = -1;
+        size--;
+    }
+}
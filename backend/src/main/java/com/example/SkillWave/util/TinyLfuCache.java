@@ -0,0 +1,285 @@
+package com.example.SkillWave.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache with W-TinyLFU eviction, sized by a weight budget rather than an entry count.
+ * New entries land in a small LRU window; entries leaving the window compete with the
+ * main space's eviction victim, and only the one used more often (by a count-min sketch
+ * of recent accesses, halved periodically so old popularity fades) stays. The main space is
+ * a segmented LRU: entries hit again while on probation move to the protected segment.
+ * One-off reads of rarely used keys therefore cannot flush out the frequently read ones.
+ * Thread safe through a single lock.
+ */
+public class TinyLfuCache<K, V> {
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    public record Stats(long hits, long misses, long evictions, long rejections, int entries, long weight) {
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Node<V> {
+        V value;
+        long weight;
+        Segment segment;
+
+        Node(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final long maxWeight;
+    private final long maxWindowWeight;
+    private final long maxProtectedWeight;
+    private final ToLongFunction<V> weigher;
+    private final FrequencySketch sketch;
+
+    private final Map<K, Node<V>> data = new HashMap<>();
+    // Access ordered, least recently used first
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // expectedEntries sizes the frequency sketch, a rough upper bound is enough
+    public TinyLfuCache(long maxWeight, int expectedEntries, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        // Same split as Caffeine: 1% window, of the rest 80% protected
+        this.maxWindowWeight = Math.max(1, maxWeight / 100);
+        this.maxProtectedWeight = (maxWeight - maxWindowWeight) * 8 / 10;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(Math.max(16, expectedEntries));
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<V> node = data.get(key);
+            if (node == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            switch (node.segment) {
+                case WINDOW -> window.get(key);
+                case PROTECTED -> protectedSegment.get(key);
+                case PROBATION -> {
+                    // Second hit in the main space, promote
+                    probation.remove(key);
+                    probationWeight -= node.weight;
+                    addTo(Segment.PROTECTED, key, node);
+                    demoteProtectedOverflow();
+                }
+            }
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Entries heavier than the whole budget are not cached
+    public void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            return;
+        }
+        lock.lock();
+        try {
+            Node<V> existing = data.get(key);
+            if (existing != null) {
+                unlink(key, existing);
+            }
+            Node<V> node = new Node<>(value, weight);
+            data.put(key, node);
+            addTo(Segment.WINDOW, key, node);
+            evictWindowOverflow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.lock();
+        try {
+            Node<V> node = data.remove(key);
+            if (node != null) {
+                unlink(key, node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits, misses, evictions, rejections, data.size(),
+                    windowWeight + probationWeight + protectedWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Entries pushed out of the window go on probation, then the main space is brought back
+    // under budget by letting each candidate compete with the probation victim
+    private void evictWindowOverflow() {
+        while (windowWeight > maxWindowWeight) {
+            Map.Entry<K, Node<V>> eldest = window.pollFirstEntry();
+            K candidate = eldest.getKey();
+            Node<V> node = eldest.getValue();
+            windowWeight -= node.weight;
+            addTo(Segment.PROBATION, candidate, node);
+
+            while (windowWeight + probationWeight + protectedWeight > maxWeight && data.containsKey(candidate)) {
+                K victim = mainVictim();
+                if (victim.equals(candidate)) {
+                    evict(candidate);
+                } else if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                    rejections++;
+                }
+            }
+        }
+        // The candidate won, but heavier winners can leave more victims to clear
+        while (windowWeight + probationWeight + protectedWeight > maxWeight) {
+            evict(mainVictim());
+        }
+    }
+
+    private K mainVictim() {
+        if (!probation.isEmpty()) {
+            return probation.firstEntry().getKey();
+        }
+        if (!protectedSegment.isEmpty()) {
+            return protectedSegment.firstEntry().getKey();
+        }
+        return window.firstEntry().getKey();
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedWeight > maxProtectedWeight && protectedSegment.size() > 1) {
+            Map.Entry<K, Node<V>> eldest = protectedSegment.pollFirstEntry();
+            protectedWeight -= eldest.getValue().weight;
+            addTo(Segment.PROBATION, eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void evict(K key) {
+        Node<V> node = data.remove(key);
+        unlink(key, node);
+        evictions++;
+    }
+
+    private void addTo(Segment segment, K key, Node<V> node) {
+        node.segment = segment;
+        switch (segment) {
+            case WINDOW -> {
+                window.put(key, node);
+                windowWeight += node.weight;
+            }
+            case PROBATION -> {
+                probation.put(key, node);
+                probationWeight += node.weight;
+            }
+            case PROTECTED -> {
+                protectedSegment.put(key, node);
+                protectedWeight += node.weight;
+            }
+        }
+    }
+
+    private void unlink(K key, Node<V> node) {
+        switch (node.segment) {
+            case WINDOW -> {
+                window.remove(key);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> {
+                probation.remove(key);
+                probationWeight -= node.weight;
+            }
+            case PROTECTED -> {
+                protectedSegment.remove(key);
+                protectedWeight -= node.weight;
+            }
+        }
+    }
+
+    // Count-min sketch of 4-bit counters, four per key; all counters halve after enough
+    // increments so the estimate follows recent popularity
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(Math.max(16, expectedEntries - 1)) << 1;
+            this.counters = new byte[width * 4];
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        void increment(Object key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                int index = indexOf(hash, row);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < 4; row++) {
+                frequency = Math.min(frequency, counters[indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h ^= h >>> 32;
+            return row * (mask + 1) + ((int) h & mask);
+        }
+
+        private void reset() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = (byte) (counters[i] >>> 1);
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.SkillWave.util;
+
+/**
+ * Byte budget refilled at a steady rate up to a burst capacity. Bytes are always taken, even
+ * when that leaves the bucket in debt; callers wait the debt out before taking more, so a
+ * user's sustained rate stays at the refill rate whatever the read sizes.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double bytesPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(long capacity, long bytesPerSecond, long now) {
+        this.capacity = capacity;
+        this.bytesPerNano = bytesPerSecond / 1e9;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    // Takes the bytes and returns how many nanoseconds until the bucket is out of debt, 0 if it
+    // is not in debt. Taking 0 bytes only asks.
+    public synchronized long consume(long bytes, long now) {
+        refill(now);
+        tokens -= bytes;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / bytesPerNano);
+    }
+
+    // A full bucket holds no state worth keeping
+    public synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * bytesPerNano);
+        refilledAt = now;
+    }
+}
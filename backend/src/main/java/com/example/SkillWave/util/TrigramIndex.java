@@ -0,0 +1,106 @@
+package com.example.SkillWave.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive substring search over the texts of each document. Every text is split
+ * into overlapping 3-character grams kept in a {@link PostingIndex}; a query intersects
+ * the posting lists of its own trigrams and only the surviving candidates are checked
+ * with a real contains. Queries shorter than a trigram fall back to checking every text.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+    private static final String[] NO_TEXTS = new String[0];
+
+    private final PostingIndex grams = new PostingIndex();
+
+    // Lower-cased texts per document, used to verify candidates
+    private final Map<Long, String[]> texts = new ConcurrentHashMap<>();
+
+    public void put(long docId, Collection<String> docTexts) {
+        String[] normalized = normalize(docTexts);
+        if (normalized.length == 0) {
+            remove(docId);
+            return;
+        }
+        texts.put(docId, normalized);
+        grams.put(docId, trigrams(normalized));
+    }
+
+    public void remove(long docId) {
+        texts.remove(docId);
+        grams.remove(docId);
+    }
+
+    public void load(Map<Long, ? extends Collection<String>> docs) {
+        Map<Long, Set<String>> gramsByDoc = new HashMap<>();
+        Map<Long, String[]> normalizedByDoc = new HashMap<>();
+        for (Map.Entry<Long, ? extends Collection<String>> doc : docs.entrySet()) {
+            String[] normalized = normalize(doc.getValue());
+            if (normalized.length > 0) {
+                normalizedByDoc.put(doc.getKey(), normalized);
+                gramsByDoc.put(doc.getKey(), trigrams(normalized));
+            }
+        }
+        texts.clear();
+        texts.putAll(normalizedByDoc);
+        grams.load(gramsByDoc);
+    }
+
+    // Ids of documents with a text containing the query, ascending
+    public long[] search(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        long[] candidates;
+        if (needle.length() < GRAM) {
+            candidates = texts.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        } else {
+            candidates = grams.all(trigrams(new String[] { needle }));
+        }
+
+        long[] matches = new long[candidates.length];
+        int size = 0;
+        for (long docId : candidates) {
+            String[] docTexts = texts.getOrDefault(docId, NO_TEXTS);
+            for (String text : docTexts) {
+                if (text.contains(needle)) {
+                    matches[size++] = docId;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(matches, size);
+    }
+
+    private static String[] normalize(Collection<String> docTexts) {
+        if (docTexts == null) {
+            return NO_TEXTS;
+        }
+        List<String> normalized = new ArrayList<>(docTexts.size());
+        for (String text : docTexts) {
+            if (text != null && !text.isEmpty()) {
+                normalized.add(text.toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized.toArray(NO_TEXTS);
+    }
+
+    private static Set<String> trigrams(String[] docTexts) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String text : docTexts) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                result.add(text.substring(i, i + GRAM));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.SkillWave.service;
+
+import com.example.SkillWave.model.LearningPlan;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the JDBC statements and time per learning plan update for the old controller
+ * sequence (existsById, getLearningPlanById, updateLearningPlan) against the single-load
+ * service operations. Each update runs in its own request-scoped EntityManager, like
+ * open-in-view does for a real request.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:plan-update-benchmark;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class LearningPlanUpdateBenchmarkTest {
+
+	private static final int WARMUP = 50;
+	private static final int ITERATIONS = 300;
+
+	// Load of the plan and its three collections, the plan row and the one changed resource row
+	private static final double MAX_SINGLE_LOAD_STATEMENTS = 7;
+	// Load of the plan and the plan row, no collection is touched
+	private static final double MAX_PATCH_STATEMENTS = 2;
+	// Statistics are global, background jobs add the odd statement to an average
+	private static final double BACKGROUND_SLACK = 0.5;
+
+	@Autowired
+	private LearningPlanService learningPlanService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void singleLoadUpdatesIssueFewerStatements() {
+		LearningPlan plan = new LearningPlan();
+		plan.setTitle("Benchmark plan");
+		plan.setDescription("Plan used to count update round trips");
+		plan.setUserId("benchmark-user");
+		plan.setTopics(numbered("topic", 10));
+		plan.setResources(numbered("https://example.com/resource/", 50));
+		plan.setMediaUrls(numbered("/api/media/learning-plans/1/file-", 3));
+		Long id = learningPlanService.createLearningPlan(plan).getId();
+
+		Result previous = measure(i -> previousUpdateWithMedia(id, i));
+		Result singleLoad = measure(i -> learningPlanService.updateLearningPlanWithMedia(
+				id, changes(i), numbered("/api/media/learning-plans/1/file-", 3), null));
+		Result patch = measure(i -> learningPlanService.patchLearningPlan(id, Map.of("title", "Patched " + i)));
+
+		System.out.printf("update-with-media, previous:    %5.2f statements, %7.1f us per update%n",
+				previous.statements(), previous.micros());
+		System.out.printf("update-with-media, single load: %5.2f statements, %7.1f us per update%n",
+				singleLoad.statements(), singleLoad.micros());
+		System.out.printf("patch title only:               %5.2f statements, %7.1f us per update%n",
+				patch.statements(), patch.micros());
+
+		assertTrue(singleLoad.statements() < previous.statements());
+		assertTrue(patch.statements() < singleLoad.statements());
+		assertTrue(singleLoad.statements() <= MAX_SINGLE_LOAD_STATEMENTS + BACKGROUND_SLACK,
+				"update-with-media issued " + singleLoad.statements() + " statements, expected at most " + MAX_SINGLE_LOAD_STATEMENTS);
+		assertTrue(patch.statements() <= MAX_PATCH_STATEMENTS + BACKGROUND_SLACK,
+				"patch issued " + patch.statements() + " statements, expected at most " + MAX_PATCH_STATEMENTS);
+	}
+
+	// What the controller did before: existence probe, load, then the generic update
+	private void previousUpdateWithMedia(Long id, int i) {
+		if (!learningPlanService.existsById(id)) {
+			throw new IllegalStateException("missing plan " + id);
+		}
+		LearningPlan existingPlan = learningPlanService.getLearningPlanById(id);
+		LearningPlan changes = changes(i);
+		existingPlan.setTitle(changes.getTitle());
+		existingPlan.setDescription(changes.getDescription());
+		existingPlan.setTopics(changes.getTopics());
+		existingPlan.setResources(changes.getResources());
+		existingPlan.setTimeline(changes.getTimeline());
+		List<String> kept = numbered("/api/media/learning-plans/1/file-", 3);
+		for (String url : existingPlan.getMediaUrls()) {
+			if (!kept.contains(url)) {
+				throw new IllegalStateException("unexpected media " + url);
+			}
+		}
+		existingPlan.setMediaUrls(new ArrayList<>(kept));
+		learningPlanService.updateLearningPlan(id, existingPlan);
+	}
+
+	// Each iteration fixes a "typo" in one resource and retitles the plan
+	private static LearningPlan changes(int i) {
+		LearningPlan changes = new LearningPlan();
+		changes.setTitle("Benchmark plan " + i);
+		changes.setDescription("Plan used to count update round trips");
+		changes.setTopics(numbered("topic", 10));
+		List<String> resources = numbered("https://example.com/resource/", 50);
+		resources.set(i % 50, "https://example.com/resource/fixed-" + i);
+		changes.setResources(resources);
+		changes.setTimeline("4 weeks");
+		return changes;
+	}
+
+	private Result measure(Update update) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		for (int i = 0; i < WARMUP; i++) {
+			inRequest(update, i);
+		}
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			inRequest(update, WARMUP + i);
+		}
+		long elapsed = System.nanoTime() - start;
+		return new Result((double) statistics.getPrepareStatementCount() / ITERATIONS,
+				elapsed / 1000.0 / ITERATIONS);
+	}
+
+	// Bind one EntityManager for the duration of the update, as open-in-view does
+	private void inRequest(Update update, int i) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			update.run(i);
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			entityManager.close();
+		}
+	}
+
+	private static List<String> numbered(String prefix, int count) {
+		List<String> values = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(prefix + i);
+		}
+		return values;
+	}
+
+	private interface Update {
+		void run(int iteration);
+	}
+
+	private record Result(double statements, double micros) {
+	}
+}
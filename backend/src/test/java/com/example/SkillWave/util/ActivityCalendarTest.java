@@ -0,0 +1,112 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityCalendarTest {
+
+	private static void markRange(ActivityCalendar calendar, LocalDate first, int days) {
+		for (int i = 0; i < days; i++) {
+			calendar.markActive(first.plusDays(i));
+		}
+	}
+
+	@Test
+	void marksEachDayOnce() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		LocalDate day = LocalDate.of(2024, 3, 1);
+
+		assertTrue(calendar.markActive(day));
+		assertFalse(calendar.markActive(day));
+		assertTrue(calendar.isActive(day));
+		assertFalse(calendar.isActive(day.plusDays(1)));
+		assertEquals(1, calendar.countActiveDays());
+	}
+
+	@Test
+	void currentStreakEndsTodayOrYesterday() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		LocalDate today = LocalDate.of(2024, 6, 15);
+		markRange(calendar, today.minusDays(4), 4);
+
+		// Today not active yet, the run up to yesterday still counts
+		assertEquals(4, calendar.currentStreak(today));
+		calendar.markActive(today);
+		assertEquals(5, calendar.currentStreak(today));
+		// A missed day breaks it
+		assertEquals(0, calendar.currentStreak(today.plusDays(2)));
+	}
+
+	@Test
+	void currentStreakCrossesWordAndYearBoundaries() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		// 2023 is not a leap year: 200 days up to 2024-01-10 span the year change and
+		// several 64-day words on both sides
+		LocalDate today = LocalDate.of(2024, 1, 10);
+		markRange(calendar, today.minusDays(199), 200);
+
+		assertEquals(200, calendar.currentStreak(today));
+		assertEquals(200, calendar.longestStreak());
+	}
+
+	@Test
+	void currentStreakCoversAWholeYear() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		// Every day of leap year 2024 plus the first day of 2025
+		markRange(calendar, LocalDate.of(2024, 1, 1), 367);
+
+		assertEquals(367, calendar.currentStreak(LocalDate.of(2025, 1, 1)));
+		assertEquals(367, calendar.longestStreak());
+	}
+
+	@Test
+	void longestStreakFindsTheLongestRun() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		markRange(calendar, LocalDate.of(2024, 2, 1), 3);
+		markRange(calendar, LocalDate.of(2024, 3, 1), 70);
+		markRange(calendar, LocalDate.of(2024, 8, 1), 10);
+
+		assertEquals(70, calendar.longestStreak());
+		assertEquals(83, calendar.countActiveDays());
+	}
+
+	@Test
+	void longestStreakRestartsAfterAMissingYear() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		markRange(calendar, LocalDate.of(2021, 12, 25), 7);
+		markRange(calendar, LocalDate.of(2023, 1, 1), 5);
+
+		assertEquals(7, calendar.longestStreak());
+	}
+
+	@Test
+	void windowListsOldestDayFirst() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		LocalDate end = LocalDate.of(2024, 1, 2);
+		calendar.markActive(end);
+		calendar.markActive(end.minusDays(2));
+
+		assertArrayEquals(new boolean[] {false, true, false, true}, calendar.window(end, 4));
+	}
+
+	@Test
+	void yearBytesRoundTrip() {
+		ActivityCalendar calendar = new ActivityCalendar();
+		markRange(calendar, LocalDate.of(2024, 12, 20), 12);
+
+		ActivityCalendar loaded = new ActivityCalendar();
+		loaded.putYear(2024, calendar.yearBytes(2024));
+		loaded.putYear(2025, calendar.yearBytes(2025));
+
+		assertEquals(ActivityCalendar.BYTES_PER_YEAR, calendar.yearBytes(2024).length);
+		assertEquals(12, loaded.countActiveDays());
+		assertEquals(12, loaded.currentStreak(LocalDate.of(2024, 12, 31).plusDays(1)));
+		assertEquals(0, new ActivityCalendar().yearBytes(2024)[0]);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostingIndexTest {
+
+	private static PostingIndex sample() {
+		PostingIndex index = new PostingIndex();
+		index.put(3, List.of("java", "spring"));
+		index.put(1, List.of("java", "sql"));
+		index.put(7, List.of("java", "spring", "sql"));
+		index.put(5, List.of("python"));
+		return index;
+	}
+
+	@Test
+	void keepsPostingListsSorted() {
+		PostingIndex index = sample();
+
+		assertArrayEquals(new long[] {1, 3, 7}, index.get("java"));
+		assertArrayEquals(new long[] {}, index.get("go"));
+		assertEquals(2, index.count("spring"));
+		assertEquals(4, index.size());
+	}
+
+	@Test
+	void anyMergesWithoutDuplicates() {
+		PostingIndex index = sample();
+
+		assertArrayEquals(new long[] {1, 3, 5, 7}, index.any(List.of("spring", "sql", "python", "go")));
+		assertArrayEquals(new long[] {3, 7}, index.any(List.of("spring", "spring")));
+		assertArrayEquals(new long[] {}, index.any(List.of("go")));
+	}
+
+	@Test
+	void allIntersects() {
+		PostingIndex index = sample();
+
+		assertArrayEquals(new long[] {7}, index.all(List.of("java", "spring", "sql")));
+		assertArrayEquals(new long[] {1, 3, 7}, index.all(List.of("java")));
+		assertArrayEquals(new long[] {}, index.all(List.of("java", "go")));
+		assertArrayEquals(new long[] {}, index.all(List.of()));
+	}
+
+	@Test
+	void putReplacesAndRemoveDropsKeys() {
+		PostingIndex index = sample();
+
+		index.put(7, List.of("python"));
+		assertArrayEquals(new long[] {1, 3}, index.get("java"));
+		assertArrayEquals(new long[] {5, 7}, index.get("python"));
+
+		index.remove(1);
+		assertArrayEquals(new long[] {}, index.get("sql"));
+		assertEquals(3, index.size());
+		assertEquals(List.of(new PostingIndex.KeyCount("python", 2), new PostingIndex.KeyCount("java", 1)),
+				index.top(2));
+	}
+
+	@Test
+	void loadMatchesIncrementalPuts() {
+		PostingIndex loaded = new PostingIndex();
+		loaded.load(Map.of(
+				3L, List.of("java", "spring"),
+				1L, List.of("java", "sql", "java"),
+				7L, List.of("java", "spring", "sql"),
+				5L, List.of("python")));
+		PostingIndex built = sample();
+
+		for (String key : List.of("java", "spring", "sql", "python")) {
+			assertArrayEquals(built.get(key), loaded.get(key), key);
+		}
+		assertEquals(built.top(10), loaded.top(10));
+		assertEquals(built.size(), loaded.size());
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RankedSetTest {
+
+	@Test
+	void ranksHighestScoreFirstAndTiesByMember() {
+		RankedSet set = new RankedSet();
+		set.put("carol", 20);
+		set.put("alice", 30);
+		set.put("bob", 20);
+
+		assertEquals(1, set.rank("alice"));
+		assertEquals(2, set.rank("bob"));
+		assertEquals(3, set.rank("carol"));
+		assertEquals(-1, set.rank("dave"));
+		assertEquals(List.of(
+				new RankedSet.Entry("alice", 30, 1),
+				new RankedSet.Entry("bob", 20, 2)), set.top(2));
+		assertEquals(3, set.top(10).size());
+	}
+
+	@Test
+	void updatesMoveMembers() {
+		RankedSet set = new RankedSet();
+		set.put("alice", 10);
+		set.put("bob", 5);
+
+		assertEquals(15, set.increment("bob", 10));
+		assertEquals(1, set.rank("bob"));
+		assertEquals(7, set.increment("carol", 7));
+		assertEquals(3, set.rank("carol"));
+
+		set.put("carol", 100);
+		assertEquals(1, set.rank("carol"));
+		set.remove("bob");
+		assertEquals(-1, set.rank("bob"));
+		assertNull(set.score("bob"));
+		assertEquals(2, set.rank("alice"));
+		assertEquals(2, set.size());
+	}
+
+	@Test
+	void matchesASortedListUnderRandomUpdates() {
+		Random random = new Random(42);
+		RankedSet set = new RankedSet();
+		Map<String, Long> expected = new HashMap<>();
+
+		for (int step = 0; step < 5_000; step++) {
+			String member = "m" + random.nextInt(300);
+			switch (random.nextInt(3)) {
+				case 0 -> {
+					long score = random.nextInt(50);
+					set.put(member, score);
+					expected.put(member, score);
+				}
+				case 1 -> {
+					long delta = random.nextInt(21) - 10;
+					set.increment(member, delta);
+					expected.merge(member, delta, Long::sum);
+				}
+				default -> {
+					set.remove(member);
+					expected.remove(member);
+				}
+			}
+		}
+
+		List<String> order = new ArrayList<>(expected.keySet());
+		order.sort(Comparator.comparing((String member) -> expected.get(member)).reversed()
+				.thenComparing(Comparator.naturalOrder()));
+		assertEquals(order.size(), set.size());
+		for (int i = 0; i < order.size(); i++) {
+			assertEquals(i + 1, set.rank(order.get(i)), order.get(i));
+		}
+		List<RankedSet.Entry> top = set.top(25);
+		for (int i = 0; i < top.size(); i++) {
+			assertEquals(order.get(i), top.get(i).member());
+			assertEquals(expected.get(order.get(i)), top.get(i).score());
+			assertEquals(i + 1, top.get(i).rank());
+		}
+	}
+}
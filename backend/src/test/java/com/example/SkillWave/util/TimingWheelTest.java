@@ -0,0 +1,113 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	// 8 slots of 100 ms: one rotation spans 800 ms
+	private static final long START = 10_000;
+
+	private static TimingWheel<String> wheel() {
+		return new TimingWheel<>(100, 8, START);
+	}
+
+	@Test
+	void firesAtTheDeadlineNotTheTick() {
+		TimingWheel<String> wheel = wheel();
+		wheel.schedule(START + 250, "a");
+
+		assertEquals(List.of(), wheel.advance(START + 200));
+		assertEquals(List.of(), wheel.advance(START + 249));
+		assertEquals(List.of("a"), wheel.advance(START + 250));
+		assertEquals(List.of(), wheel.advance(START + 400));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void keepsTimersAcrossRotations() {
+		TimingWheel<String> wheel = wheel();
+		assertEquals(800, wheel.spanMillis());
+		// Same slot as START + 100, three rotations later
+		wheel.schedule(START + 2_500, "late");
+		wheel.schedule(START + 100, "early");
+
+		List<String> fired = new ArrayList<>();
+		List<Long> firedAt = new ArrayList<>();
+		for (long now = START; now <= START + 3_000; now += 50) {
+			List<String> expired = wheel.advance(now);
+			fired.addAll(expired);
+			for (int i = 0; i < expired.size(); i++) {
+				firedAt.add(now);
+			}
+		}
+		assertEquals(List.of("early", "late"), fired);
+		assertEquals(List.of(START + 100, START + 2_500), firedAt);
+	}
+
+	@Test
+	void aLongJumpFiresEverythingDue() {
+		TimingWheel<String> wheel = wheel();
+		for (int i = 0; i < 20; i++) {
+			wheel.schedule(START + i * 333L, "t" + i);
+		}
+
+		List<String> fired = wheel.advance(START + 10 * 800);
+		assertEquals(20, fired.size());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void overdueTimersFireOnTheNextAdvance() {
+		TimingWheel<String> wheel = wheel();
+		wheel.advance(START + 1_000);
+		wheel.schedule(START + 10, "overdue");
+
+		assertEquals(List.of("overdue"), wheel.advance(START + 1_000));
+	}
+
+	@Test
+	void cancelledTimersDoNotFire() {
+		TimingWheel<String> wheel = wheel();
+		wheel.schedule(START + 300, "a");
+		TimingWheel.Timer<String> b = wheel.schedule(START + 300, "b");
+		wheel.schedule(START + 300, "c");
+		// Next rotation, same slot
+		TimingWheel.Timer<String> d = wheel.schedule(START + 1_100, "d");
+
+		assertTrue(wheel.cancel(b));
+		assertFalse(wheel.cancel(b));
+		assertEquals(3, wheel.size());
+
+		List<String> fired = wheel.advance(START + 500);
+		fired.sort(null);
+		assertEquals(List.of("a", "c"), fired);
+
+		assertTrue(wheel.cancel(d));
+		assertEquals(List.of(), wheel.advance(START + 2_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void firedTimersCannotBeCancelled() {
+		TimingWheel<String> wheel = wheel();
+		TimingWheel.Timer<String> timer = wheel.schedule(START + 100, "a");
+		wheel.advance(START + 100);
+
+		assertFalse(wheel.cancel(timer));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void rejectsInvalidSizes() {
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 8, START));
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(100, 0, START));
+	}
+}
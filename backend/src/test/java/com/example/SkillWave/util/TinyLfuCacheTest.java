@@ -0,0 +1,111 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLfuCacheTest {
+
+	@Test
+	void getsPutsAndRemoves() {
+		TinyLfuCache<String, String> cache = new TinyLfuCache<>(100, 100, value -> 1);
+		cache.put("a", "1");
+		cache.put("a", "2");
+
+		assertEquals("2", cache.get("a"));
+		assertNull(cache.get("b"));
+		cache.remove("a");
+		assertNull(cache.get("a"));
+
+		TinyLfuCache.Stats stats = cache.stats();
+		assertEquals(1, stats.hits());
+		assertEquals(2, stats.misses());
+		assertEquals(0, stats.entries());
+		assertEquals(0, stats.weight());
+	}
+
+	@Test
+	void staysWithinTheWeightBudget() {
+		TinyLfuCache<Integer, byte[]> cache = new TinyLfuCache<>(1_000, 100, value -> value.length);
+		for (int i = 0; i < 500; i++) {
+			cache.put(i, new byte[1 + i % 50]);
+			cache.get(i % 7);
+			assertTrue(cache.stats().weight() <= 1_000);
+		}
+		assertTrue(cache.stats().evictions() > 0);
+
+		// Heavier than the whole budget: not cached, nothing else is evicted for it
+		long before = cache.stats().weight();
+		cache.put(-1, new byte[1_001]);
+		assertNull(cache.get(-1));
+		assertEquals(before, cache.stats().weight());
+	}
+
+	@Test
+	void frequentEntriesSurviveAScan() {
+		TinyLfuCache<String, String> cache = new TinyLfuCache<>(100, 1_000, value -> 1);
+		for (int i = 0; i < 50; i++) {
+			cache.put("hot" + i, "v");
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 50; i++) {
+				cache.get("hot" + i);
+			}
+		}
+
+		// One-off keys, each read once, far more of them than the cache holds
+		for (int i = 0; i < 2_000; i++) {
+			cache.put("scan" + i, "v");
+			cache.get("scan" + i);
+		}
+
+		int survivors = 0;
+		for (int i = 0; i < 50; i++) {
+			if (cache.get("hot" + i) != null) {
+				survivors++;
+			}
+		}
+		assertEquals(50, survivors);
+		assertTrue(cache.stats().rejections() > 0);
+		assertTrue(cache.stats().entries() <= 100);
+	}
+
+	@Test
+	void recentEntriesWinOnceOldPopularityFades() {
+		TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 16, value -> 1);
+		for (int i = 0; i < 10; i++) {
+			cache.put("old" + i, "v");
+			cache.get("old" + i);
+			cache.get("old" + i);
+		}
+
+		// A new working set read often enough replaces the old one
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < 10; i++) {
+				if (cache.get("new" + i) == null) {
+					cache.put("new" + i, "v");
+				}
+			}
+		}
+		for (int i = 0; i < 10; i++) {
+			assertEquals("v", cache.get("new" + i));
+		}
+	}
+
+	@Test
+	void sketchCountsUpToFifteenAndHalves() {
+		TinyLfuCache.FrequencySketch sketch = new TinyLfuCache.FrequencySketch(16);
+		for (int i = 0; i < 20; i++) {
+			sketch.increment("key");
+		}
+		assertEquals(15, sketch.frequency("key"));
+
+		// Width 32 resets after 320 additions, every counter is halved
+		for (int i = 0; sketch.frequency("key") == 15 && i < 1_000; i++) {
+			sketch.increment("other" + i);
+		}
+		assertEquals(7, sketch.frequency("key"));
+	}
+}
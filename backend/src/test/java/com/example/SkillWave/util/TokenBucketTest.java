@@ -0,0 +1,58 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+	private static final long MS = 1_000_000;
+	private static final long START = 5_000 * MS;
+
+	// 1000 bytes of burst, refilled at 1000 bytes per second: one byte per millisecond
+	private static TokenBucket bucket() {
+		return new TokenBucket(1_000, 1_000, START);
+	}
+
+	@Test
+	void spendsTheBurstThenAsksToWaitOutTheDebt() {
+		TokenBucket bucket = bucket();
+
+		assertEquals(0, bucket.consume(600, START));
+		assertEquals(0, bucket.consume(400, START));
+		assertEquals(0, bucket.consume(0, START));
+		// 200 bytes over: 200ms until the bucket is out of debt
+		assertEquals(200 * MS, bucket.consume(200, START), 1);
+		assertEquals(200 * MS, bucket.consume(0, START), 1);
+		assertEquals(0, bucket.consume(0, START + 200 * MS));
+	}
+
+	@Test
+	void refillsOverTimeUpToTheCapacity() {
+		TokenBucket bucket = bucket();
+		bucket.consume(1_000, START);
+
+		assertEquals(0, bucket.consume(250, START + 250 * MS));
+		assertFalse(bucket.isFull(START + 1_000 * MS));
+		assertTrue(bucket.isFull(START + 1_250 * MS));
+
+		// A long idle period does not bank more than the capacity
+		assertEquals(0, bucket.consume(1_000, START + 60_000 * MS));
+		assertEquals(1 * MS, bucket.consume(1, START + 60_000 * MS), 1);
+	}
+
+	@Test
+	void paysBackLargeReadsAtTheRefillRate() {
+		TokenBucket bucket = bucket();
+
+		// 4000 bytes in debt after one large read
+		assertEquals(4_000 * MS, bucket.consume(5_000, START), 1);
+		// Reads taken while in debt deepen it
+		assertEquals(3_500 * MS, bucket.consume(500, START + 1_000 * MS), 1);
+		assertEquals(0, bucket.consume(0, START + 4_500 * MS));
+		assertFalse(bucket.isFull(START + 5_000 * MS));
+		assertTrue(bucket.isFull(START + 5_500 * MS));
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.SkillWave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TrigramIndexTest {
+
+	private static TrigramIndex sample() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(2, List.of("Spring Boot Basics", "Build REST services"));
+		index.put(1, List.of("Java Streams", "Functional programming in Java"));
+		index.put(3, List.of("Intro to SQL"));
+		return index;
+	}
+
+	@Test
+	void findsSubstringsIgnoringCase() {
+		TrigramIndex index = sample();
+
+		assertArrayEquals(new long[] {1}, index.search("STREAM"));
+		assertArrayEquals(new long[] {1, 2}, index.search("ing"));
+		assertArrayEquals(new long[] {2}, index.search("rest serv"));
+		assertArrayEquals(new long[] {}, index.search("kotlin"));
+	}
+
+	@Test
+	void matchesWithinOneTextOnly() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, List.of("abc", "bcd"));
+
+		// Both trigrams of the query are in the document, but no single text holds it
+		assertArrayEquals(new long[] {}, index.search("abcd"));
+		assertArrayEquals(new long[] {1}, index.search("bcd"));
+	}
+
+	@Test
+	void shortQueriesCheckEveryText() {
+		TrigramIndex index = sample();
+
+		assertArrayEquals(new long[] {1, 2, 3}, index.search("s"));
+		assertArrayEquals(new long[] {3}, index.search("sq"));
+		assertArrayEquals(new long[] {1, 2, 3}, index.search(""));
+	}
+
+	@Test
+	void putReplacesAndRemoveForgets() {
+		TrigramIndex index = sample();
+
+		index.put(2, List.of("Docker for beginners"));
+		assertArrayEquals(new long[] {}, index.search("spring"));
+		assertArrayEquals(new long[] {2}, index.search("docker"));
+
+		index.remove(1);
+		assertArrayEquals(new long[] {}, index.search("java"));
+		index.put(3, List.of());
+		assertArrayEquals(new long[] {2}, index.search("o"));
+	}
+
+	@Test
+	void loadReplacesTheIndex() {
+		TrigramIndex index = sample();
+		index.load(Map.of(4L, List.of("Kotlin coroutines"), 5L, List.of("Advanced SQL")));
+
+		assertArrayEquals(new long[] {}, index.search("java"));
+		assertArrayEquals(new long[] {5}, index.search("sql"));
+		assertArrayEquals(new long[] {4}, index.search("ROUT"));
+	}
+}
@@ -1,7 +1,8 @@
 import React, { useState } from 'react';
 import PropTypes from 'prop-types';
+import { MediaService } from '../../services/media.service';
 
-const MediaViewer = ({ media, className = '' }) => {
+const MediaViewer = ({ media, className = '', size = 'large' }) => {
   const [activeIndex, setActiveIndex] = useState(0);
   
   if (!media || media.length === 0) {
@@ -18,7 +19,7 @@ const MediaViewer = ({ media, className = '' }) => {
       case 'IMAGE':
         return (
           <img 
-            src={currentMedia.url} 
+            src={MediaService.sizedUrl(currentMedia.url, size)} 
             alt={currentMedia.alt || 'Post image'} 
             className="img-fluid rounded"
           />
@@ -78,7 +79,7 @@ const MediaViewer = ({ media, className = '' }) => {
             >
               {item.type === 'IMAGE' ? (
                 <img 
-                  src={item.thumbnailUrl || item.url} 
+                  src={item.thumbnailUrl || MediaService.sizedUrl(item.url, 'thumb')} 
                   alt={`Thumbnail ${index + 1}`} 
                   width="60" 
                   height="60" 
@@ -123,7 +124,8 @@ MediaViewer.propTypes = {
       filename: PropTypes.string
     })
   ),
-  className: PropTypes.string
+  className: PropTypes.string,
+  size: PropTypes.oneOf(['thumb', 'medium', 'large'])
 };
 
 export default MediaViewer;
\ No newline at end of file
@@ -40,7 +40,7 @@ const PostCard = ({ post }) => {
       {/* Media preview */}
       {featuredMedia && (
         <div className="card-img-top">
-          <MediaViewer media={featuredMedia} />
+          <MediaViewer media={featuredMedia} size="medium" />
         </div>
       )}
       
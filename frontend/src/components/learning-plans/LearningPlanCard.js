@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { ProgressService } from '../../services/progress.service';
+import { MediaService } from '../../services/media.service';
 
 const LearningPlanCard = ({ learningPlan, onDelete }) => {
   const userId = localStorage.getItem('userId') || 'user123'; // Get from auth context in production
@@ -97,7 +98,7 @@ const LearningPlanCard = ({ learningPlan, onDelete }) => {
         return (
           <div className="media-preview position-relative mb-3">
             <img 
-              src={firstMedia} 
+              src={MediaService.sizedUrl(firstMedia, 'medium')} 
               className="img-fluid rounded w-100" 
               alt="Plan preview" 
               style={{ maxHeight: '150px', objectFit: 'cover' }}
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useParams, useNavigate, Link } from 'react-router-dom';
 import { LearningPlanService } from '../../services/learningPlan.service';
+import { MediaService } from '../../services/media.service';
 import ProgressTracker from '../progress/ProgressTracker';
 import LoadingSpinner from '../common/LoadingSpinner';
 import ErrorAlert from '../common/ErrorAlert';
@@ -60,7 +61,7 @@ const LearningPlanDetail = () => {
             </div>
           ) : (
             <img 
-              src={url} 
+              src={MediaService.sizedUrl(url, 'large')} 
               className="img-fluid rounded mb-3" 
               alt="Learning plan attachment" 
             />
@@ -96,7 +97,7 @@ const LearningPlanDetail = () => {
                   </div>
                 ) : (
                   <img 
-                    src={url} 
+                    src={MediaService.sizedUrl(url, 'large')} 
                     className="d-block w-100" 
                     alt={`Learning plan attachment ${index + 1}`} 
                   />
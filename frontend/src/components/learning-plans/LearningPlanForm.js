@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate, useParams } from 'react-router-dom';
 import { LearningPlanService } from '../../services/learningPlan.service';
+import { MediaService } from '../../services/media.service';
 import LoadingSpinner from '../common/LoadingSpinner';
 import ErrorAlert from '../common/ErrorAlert';
 
@@ -304,7 +305,7 @@ const LearningPlanForm = () => {
                 ></video>
               ) : (
                 <img 
-                  src={url} 
+                  src={MediaService.sizedUrl(url, 'thumb')} 
                   alt={`Attachment ${index + 1}`} 
                   style={{ width: '100px', height: '100px', objectFit: 'cover' }} 
                   className="rounded border"
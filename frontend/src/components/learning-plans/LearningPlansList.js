@@ -7,6 +7,9 @@ const LearningPlansList = () => {
   const [learningPlans, setLearningPlans] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [hasMore, setHasMore] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   // Load learning plans on component mount
   useEffect(() => {
@@ -17,8 +20,10 @@ const LearningPlansList = () => {
   const fetchLearningPlans = async () => {
     setLoading(true);
     try {
-      const data = await LearningPlanService.getAll();
-      setLearningPlans(data);
+      const page = await LearningPlanService.getPage();
+      setLearningPlans(page.plans);
+      setNextCursor(page.nextCursor);
+      setHasMore(page.hasMore);
       setError(null);
     } catch (error) {
       console.error('Error fetching learning plans:', error);
@@ -32,8 +37,10 @@ const LearningPlansList = () => {
   const refreshLearningPlans = async () => {
     setLoading(true);
     try {
-      const data = await LearningPlanService.getAll();
-      setLearningPlans(data);
+      const page = await LearningPlanService.getPage();
+      setLearningPlans(page.plans);
+      setNextCursor(page.nextCursor);
+      setHasMore(page.hasMore);
       setError(null);
     } catch (error) {
       console.error('Error refreshing learning plans:', error);
@@ -43,6 +50,23 @@ const LearningPlansList = () => {
     }
   };
 
+  // Load the next page after the last plan shown
+  const loadMoreLearningPlans = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await LearningPlanService.getPage(nextCursor);
+      setLearningPlans(prevPlans => [...prevPlans, ...page.plans]);
+      setNextCursor(page.nextCursor);
+      setHasMore(page.hasMore);
+      setError(null);
+    } catch (error) {
+      console.error('Error loading more learning plans:', error);
+      setError('Failed to load more learning plans. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Delete learning plan
   const handleDelete = async (id) => {
     if (window.confirm('Are you sure you want to delete this learning plan?')) {
@@ -127,6 +151,18 @@ const LearningPlansList = () => {
               ))}
             </div>
           )}
+
+          {hasMore && (
+            <div className="text-center my-4">
+              <button 
+                onClick={loadMoreLearningPlans}
+                className="btn btn-outline-primary"
+                disabled={loadingMore}
+              >
+                {loadingMore ? 'Loading...' : 'Load More'}
+              </button>
+            </div>
+          )}
         </>
       )}
     </div>
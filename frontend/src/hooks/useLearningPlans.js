@@ -5,12 +5,17 @@ export const useLearningPlans = () => {
   const [learningPlans, setLearningPlans] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [hasMore, setHasMore] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   const fetchLearningPlans = useCallback(async () => {
     try {
       setLoading(true);
-      const data = await LearningPlanService.getAll();
-      setLearningPlans(data);
+      const page = await LearningPlanService.getPage();
+      setLearningPlans(page.plans);
+      setNextCursor(page.nextCursor);
+      setHasMore(page.hasMore);
       setError(null);
     } catch (err) {
       setError('Failed to load learning plans. Please try again.');
@@ -19,6 +24,23 @@ export const useLearningPlans = () => {
     }
   }, []);
 
+  // Append the next page after the last plan shown
+  const loadMoreLearningPlans = useCallback(async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const page = await LearningPlanService.getPage(nextCursor);
+      setLearningPlans(prevPlans => [...prevPlans, ...page.plans]);
+      setNextCursor(page.nextCursor);
+      setHasMore(page.hasMore);
+      setError(null);
+    } catch (err) {
+      setError('Failed to load more learning plans. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [nextCursor]);
+
   useEffect(() => {
     fetchLearningPlans();
   }, [fetchLearningPlans]);
@@ -62,7 +84,10 @@ export const useLearningPlans = () => {
     learningPlans,
     loading,
     error,
+    hasMore,
+    loadingMore,
     fetchLearningPlans,
+    loadMoreLearningPlans,
     addLearningPlan,
     updateLearningPlan,
     deleteLearningPlan
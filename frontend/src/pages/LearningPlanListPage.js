@@ -7,7 +7,16 @@ import LearningPlanCard from '../components/learning-plans/LearningPlanCard';
 import { useLearningPlans } from '../hooks/useLearningPlans';
 
 const LearningPlanListPage = () => {
-  const { learningPlans, loading, error, fetchLearningPlans, deleteLearningPlan } = useLearningPlans();
+  const {
+    learningPlans,
+    loading,
+    error,
+    hasMore,
+    loadingMore,
+    fetchLearningPlans,
+    loadMoreLearningPlans,
+    deleteLearningPlan
+  } = useLearningPlans();
 
   const handleDelete = async (id) => {
     if (window.confirm('Are you sure you want to delete this learning plan?')) {
@@ -65,6 +74,18 @@ const LearningPlanListPage = () => {
           ))}
         </div>
       )}
+
+      {hasMore && (
+        <div className="text-center mb-4">
+          <button 
+            onClick={loadMoreLearningPlans}
+            className="btn btn-outline-primary"
+            disabled={loadingMore}
+          >
+            {loadingMore ? 'Loading...' : 'Load More'}
+          </button>
+        </div>
+      )}
     </>
   );
 };
@@ -7,7 +7,26 @@ export const LearningPlanService = {
       const response = await api.get('/api/learning-plans', {
         params: { page, size, sortBy, direction }
       });
-      return response.data;
+      // The endpoint returns a page object; callers work with the list of plans
+      return response.data.plans || response.data;
+    } catch (error) {
+      console.error('Error fetching learning plans:', error);
+      throw error;
+    }
+  },
+
+  // Get one page of learning plans: pass the nextCursor of the previous page to continue
+  getPage: async (cursor = null, size = 10) => {
+    try {
+      const response = await api.get('/api/learning-plans', {
+        params: cursor ? { cursor, size } : { size }
+      });
+      const data = response.data;
+      // The first page reports page counts, later (cursor) pages report hasMore
+      const hasMore = data.hasMore !== undefined
+        ? data.hasMore
+        : data.currentPage + 1 < data.totalPages;
+      return { plans: data.plans || [], nextCursor: data.nextCursor || null, hasMore };
     } catch (error) {
       console.error('Error fetching learning plans:', error);
       throw error;
@@ -0,0 +1,48 @@
+import api from './api.service';
+
+// Bytes sent per PATCH of a resumable upload
+const CHUNK_SIZE = 8 * 1024 * 1024;
+const MAX_RETRIES = 5;
+
+export const MediaService = {
+  // URL of an uploaded image scaled to 'thumb', 'medium' or 'large'; videos and other URLs are returned as is
+  sizedUrl: (url, size) => {
+    if (!url || !size || !url.includes('/api/media/') || !/\.(jpe?g|png)$/i.test(url)) {
+      return url;
+    }
+    return `${url}?size=${size}`;
+  },
+
+  // Upload a large file in chunks; after a failed chunk it asks the server for its offset and carries on.
+  // Resolves to { url, hash, size } once the server has added the url to the plan or post's media.
+  uploadResumable: async (file, folder, entityId, onProgress) => {
+    const start = await api.post('/api/media/uploads', { filename: file.name, size: file.size });
+    const { uploadId } = start.data;
+    let offset = 0;
+    let retries = 0;
+
+    while (offset < file.size) {
+      try {
+        const response = await api.patch(`/api/media/uploads/${uploadId}`,
+          file.slice(offset, offset + CHUNK_SIZE), {
+            headers: { 'Content-Type': 'application/octet-stream', 'Upload-Offset': offset }
+          });
+        offset = response.data.offset;
+        retries = 0;
+        if (onProgress) {
+          onProgress(offset / file.size);
+        }
+      } catch (error) {
+        if (++retries > MAX_RETRIES) {
+          console.error('Error uploading media chunk:', error);
+          throw error;
+        }
+        const status = await api.get(`/api/media/uploads/${uploadId}`);
+        offset = status.data.offset;
+      }
+    }
+
+    const response = await api.post(`/api/media/uploads/${uploadId}/complete`, { folder, entityId });
+    return response.data;
+  }
+};